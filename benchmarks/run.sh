@@ -0,0 +1,14 @@
+#!/bin/bash
+#
+# Runs the JMH benchmarks against the current stack state sources
+#   ./run.sh                                  runs every benchmark
+#   ./run.sh StateCalculatorBenchmark -p componentCount=10000
+#
+# Any argument is passed straight to JMH, see: java -jar target/benchmarks.jar -h
+
+cd "$(dirname "$0")" || exit 1
+
+mvn -B -q -f ../pom.xml install -DskipTests || exit 1
+mvn -B -q package || exit 1
+
+"${JAVA_HOME}"/bin/java -jar target/benchmarks.jar -rf json -rff target/jmh-result.json "$@"
@@ -0,0 +1,60 @@
+package stackstate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.state.CheckedState;
+import stackstate.domain.state.OwnState;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CheckedStateBenchmark {
+
+  @Param({"1", "16", "256"})
+  public int checksPerComponent;
+
+  private CheckedState checkedState;
+  private OwnState ownState;
+  private Event event;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SyntheticGraph graph = new SyntheticGraph(1, 1, 0, checksPerComponent);
+    String[] checks = graph.checkNames();
+    checkedState = CheckedState.dataless(checks);
+    ownState = OwnState.dataless();
+    event = Event.of(1, "component-0", checks[checks.length / 2], StateValue.WARNING);
+  }
+
+  @Benchmark
+  public CheckedState updateGiven() {
+    return checkedState.updateGiven(event);
+  }
+
+  @Benchmark
+  public CheckedState apply() {
+    checkedState.apply(event);
+    return checkedState;
+  }
+
+  @Benchmark
+  public OwnState updateOwnStateGiven() {
+    return ownState.updateGiven(checkedState);
+  }
+}
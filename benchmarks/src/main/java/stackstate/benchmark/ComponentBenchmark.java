@@ -0,0 +1,47 @@
+package stackstate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ComponentBenchmark {
+
+  private Component component;
+  private Event[] events;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp(TopologyState topology) {
+    component = topology.graph.firstLayerComponent(topology.stackState);
+    String check = topology.graph.checkNames()[0];
+    events = new Event[]{
+        Event.of(1, component.getId(), check, StateValue.CLEAR),
+        Event.of(2, component.getId(), check, StateValue.WARNING),
+        Event.of(3, component.getId(), check, StateValue.ALERT)
+    };
+  }
+
+  @Benchmark
+  public void apply() {
+    component.apply(events[next]);
+    next = (next + 1) % events.length;
+  }
+}
@@ -0,0 +1,39 @@
+package stackstate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.domain.Component;
+import stackstate.domain.state.DerivedState;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DerivedStateBenchmark {
+
+  private Component component;
+  private DerivedState derivedState;
+
+  @Setup(Level.Trial)
+  public void setUp(TopologyState topology) {
+    component = topology.graph.lastLayerComponent(topology.stackState);
+    derivedState = component.getDerivedState();
+  }
+
+  @Benchmark
+  public DerivedState updateGiven() {
+    return derivedState.updateGiven(component);
+  }
+}
@@ -0,0 +1,93 @@
+package stackstate.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.ingest.EventIngestor;
+import stackstate.ingest.WaitStrategy;
+
+/**
+ * Events fed by several producer threads through the ring buffer, against one thread applying them
+ * directly. Each operation applies the whole event chain.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class IngestionBenchmark {
+
+  @Param({"1", "4"})
+  public int producerCount;
+
+  @Param({"BUSY_SPIN", "YIELD", "PARK"})
+  public WaitStrategy waitStrategy;
+
+  @Param({"100000"})
+  public int componentCount;
+
+  @Param({"1000000"})
+  public int eventCount;
+
+  private StackState stackState;
+  private EventChain events;
+  private List<List<Event>> partitions;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SyntheticGraph graph = new SyntheticGraph(componentCount, 8, 2, 4);
+    stackState = graph.buildStackState();
+    events = graph.buildEvents(eventCount);
+    partitions = new ArrayList<>();
+    for (int producer = 0; producer < producerCount; producer++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (Event event : events) {
+      partitions.get(Math.floorMod(event.getComponent().hashCode(), producerCount)).add(event);
+    }
+  }
+
+  @Benchmark
+  public StackState applyDirectly() {
+    return new StateCalculator().processOrderedEvents(stackState, events.stream());
+  }
+
+  @Benchmark
+  public long ingest() throws InterruptedException {
+    EventIngestor ingestor = EventIngestor.builder()
+        .stackState(stackState)
+        .waitStrategy(waitStrategy)
+        .build();
+    try {
+      List<Thread> producers = new ArrayList<>();
+      for (List<Event> partition : partitions) {
+        Thread producer = new Thread(() -> partition.forEach(ingestor::publish));
+        producers.add(producer);
+        producer.start();
+      }
+      for (Thread producer : producers) {
+        producer.join();
+      }
+    } finally {
+      ingestor.close();
+    }
+    return ingestor.appliedCount();
+  }
+}
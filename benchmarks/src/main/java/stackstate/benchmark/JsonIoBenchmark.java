@@ -0,0 +1,196 @@
+package stackstate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.StackState;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.dto.event.StackEventDto;
+import stackstate.io.log.EventLogConverter;
+import stackstate.io.mapper.StackStateMapper;
+import stackstate.io.reader.BinaryEventLogReader;
+import stackstate.io.reader.BinarySnapshotReader;
+import stackstate.io.reader.ExternalJsonFileReader;
+import stackstate.io.reader.ParallelNdjsonFileReader;
+import stackstate.io.reader.StreamingJsonFileReader;
+import stackstate.io.writer.BinarySnapshotWriter;
+import stackstate.io.writer.ConsoleWriter;
+import stackstate.io.writer.StreamingConsoleWriter;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class JsonIoBenchmark {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+      .configure(SerializationFeature.INDENT_OUTPUT, true);
+  private static final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
+
+  @Param({"10000", "100000"})
+  public int componentCount;
+
+  @Param({"4"})
+  public int checksPerComponent;
+
+  @Param({"100000"})
+  public int eventCount;
+
+  private File stateFile;
+  private File eventsFile;
+  private File eventLogFile;
+  private File ndjsonEventsFile;
+  private File snapshotFile;
+  private StackState stackState;
+  private PrintStream console;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    SyntheticGraph graph = new SyntheticGraph(componentCount, 8, 2, checksPerComponent);
+    stackState = graph.buildStackState();
+    stateFile = Files.createTempFile("stack-state", ".json").toFile();
+    eventsFile = Files.createTempFile("events", ".json").toFile();
+    objectMapper.writeValue(stateFile, new StackStateMapper().map(stackState));
+    objectMapper.writeValue(eventsFile, toDto(graph.buildEvents(eventCount)));
+    eventLogFile = Files.createTempFile("events", ".log").toFile();
+    EventLogConverter.convert(graph.buildEvents(eventCount).stream(), eventLogFile.toPath());
+    ndjsonEventsFile = Files.createTempFile("events", ".ndjson").toFile();
+    Files.write(ndjsonEventsFile.toPath(), ndjsonLines(graph.buildEvents(eventCount)));
+    snapshotFile = Files.createTempFile("stack-state", ".snapshot").toFile();
+    new BinarySnapshotWriter(stackState, snapshotFile.toPath()).write();
+
+    console = System.out;
+    System.setOut(new PrintStream(new NullOutputStream()));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(console);
+    stateFile.delete();
+    eventsFile.delete();
+    eventLogFile.delete();
+    ndjsonEventsFile.delete();
+    snapshotFile.delete();
+  }
+
+  @Benchmark
+  public StackState readInitialState() {
+    return new ExternalJsonFileReader(stateFile.getPath(), eventsFile.getPath(), codec).readInitialState();
+  }
+
+  @Benchmark
+  public StackState readSnapshot() {
+    return new BinarySnapshotReader(snapshotFile.getPath(), eventsFile.getPath(), codec).readInitialState();
+  }
+
+  @Benchmark
+  public EventChain readEvents() {
+    return new ExternalJsonFileReader(stateFile.getPath(), eventsFile.getPath(), codec).readEvents();
+  }
+
+  @Benchmark
+  public long streamEvents() {
+    try (Stream<Event> events = new StreamingJsonFileReader(stateFile.getPath(), eventsFile.getPath(), codec)
+        .streamEvents()) {
+      return events.count();
+    }
+  }
+
+  /**
+   * Sums the timestamps rather than counting, so that every record is decoded.
+   */
+  @Benchmark
+  public long streamBinaryEvents() {
+    try (Stream<Event> events = new BinaryEventLogReader(stateFile.getPath(), eventLogFile.getPath(), codec)
+        .streamEvents()) {
+      return events.mapToLong(Event::getTimestamp).sum();
+    }
+  }
+
+  /**
+   * Parses on every thread of the common pool, see how it scales with
+   * {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+   */
+  @Benchmark
+  public EventChain readNdjsonEvents() {
+    return new ParallelNdjsonFileReader(stateFile.getPath(), ndjsonEventsFile.getPath(), codec).readEvents();
+  }
+
+  @Benchmark
+  public void writeWithConsoleWriter() {
+    new ConsoleWriter(stackState, codec).write();
+  }
+
+  @Benchmark
+  public void writeWithStreamingConsoleWriter() {
+    new StreamingConsoleWriter(stackState, codec, new NullOutputStream()).write();
+  }
+
+  private static StackEventDto toDto(EventChain events) {
+    List<EventDto> dtos = events.stream()
+        .map(JsonIoBenchmark::toDto)
+        .collect(Collectors.toList());
+    return StackEventDto.builder()
+        .events(dtos)
+        .build();
+  }
+
+  private static List<String> ndjsonLines(EventChain events) throws IOException {
+    ObjectMapper compact = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+    List<String> lines = new ArrayList<>(events.size());
+    for (Event event : events) {
+      lines.add(compact.writeValueAsString(toDto(event)));
+    }
+    return lines;
+  }
+
+  private static EventDto toDto(Event event) {
+    return EventDto.builder()
+        .timestamp(String.valueOf(event.getTimestamp()))
+        .component(event.getComponent())
+        .checkState(event.getCheckState())
+        .state(event.getState().toString().toLowerCase())
+        .build();
+  }
+
+  private static class NullOutputStream extends OutputStream {
+
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  }
+}
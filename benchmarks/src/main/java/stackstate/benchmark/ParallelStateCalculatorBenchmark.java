@@ -0,0 +1,76 @@
+package stackstate.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.ParallelStateCalculator;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.Component;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+/**
+ * Sequential against island parallel processing, over independent layered graphs.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ParallelStateCalculatorBenchmark {
+
+  @Param({"1", "64"})
+  public int islandCount;
+
+  @Param({"100000"})
+  public int componentCount;
+
+  @Param({"10000"})
+  public int eventCount;
+
+  private final StateCalculator stateCalculator = new StateCalculator();
+  private final ParallelStateCalculator parallelStateCalculator = new ParallelStateCalculator();
+
+  private StackState stackState;
+  private EventChain events;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<Component> components = new ArrayList<>(componentCount);
+    List<Event> allEvents = new ArrayList<>(eventCount);
+    for (int island = 0; island < islandCount; island++) {
+      SyntheticGraph graph = new SyntheticGraph(componentCount / islandCount, 16, 2, 4, "island-" + island + "/");
+      components.addAll(graph.buildComponents());
+      for (Event event : graph.buildEvents(eventCount / islandCount)) {
+        long timestamp = event.getTimestamp() * islandCount + island;
+        allEvents.add(Event.of(timestamp, event.getComponent(), event.getCheckState(), event.getState()));
+      }
+    }
+    stackState = StackState.withComponents(components);
+    events = EventChain.withEvents(allEvents);
+  }
+
+  @Benchmark
+  public StackState processEvents() {
+    return stateCalculator.processEvents(stackState, events);
+  }
+
+  @Benchmark
+  public StackState processEventsInParallel() {
+    return parallelStateCalculator.processEvents(stackState, events);
+  }
+}
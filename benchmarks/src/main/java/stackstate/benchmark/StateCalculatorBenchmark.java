@@ -0,0 +1,47 @@
+package stackstate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.columnar.ColumnarStackState;
+import stackstate.columnar.ColumnarStateCalculator;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class StateCalculatorBenchmark {
+
+  @Param({"256"})
+  public int batchSize;
+
+  private final StateCalculator stateCalculator = new StateCalculator();
+  private final ColumnarStateCalculator columnarStateCalculator = new ColumnarStateCalculator();
+
+  @Benchmark
+  public StackState processEvents(TopologyState topology) {
+    return stateCalculator.processEvents(topology.stackState, topology.events);
+  }
+
+  @Benchmark
+  public StackState processEventsInBatches(TopologyState topology) {
+    return stateCalculator.processEventsInBatches(topology.stackState, topology.events, batchSize);
+  }
+
+  @Benchmark
+  public ColumnarStackState processEventsOnColumns(TopologyState topology) {
+    return columnarStateCalculator.processEvents(topology.columnarStackState, topology.events);
+  }
+}
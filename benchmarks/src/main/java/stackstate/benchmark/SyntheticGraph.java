@@ -0,0 +1,107 @@
+package stackstate.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+/**
+ * Deterministic layered topology: components are spread over {@code chainDepth} layers and every
+ * component above the first layer depends on {@code fanOut} components of the layer below it, so
+ * an event on the first layer propagates through the whole depth of the graph.
+ */
+public class SyntheticGraph {
+
+  private static final long SEED = 42L;
+  private static final StateValue[] EVENT_STATES = {StateValue.CLEAR, StateValue.WARNING, StateValue.ALERT};
+
+  private final int componentCount;
+  private final int chainDepth;
+  private final int fanOut;
+  private final int checksPerComponent;
+  private final String idPrefix;
+
+  public SyntheticGraph(int componentCount, int chainDepth, int fanOut, int checksPerComponent) {
+    this(componentCount, chainDepth, fanOut, checksPerComponent, "");
+  }
+
+  /**
+   * Graphs built with different id prefixes can be put side by side as independent islands.
+   */
+  public SyntheticGraph(int componentCount, int chainDepth, int fanOut, int checksPerComponent, String idPrefix) {
+    this.idPrefix = idPrefix;
+    this.componentCount = componentCount;
+    this.chainDepth = Math.max(1, Math.min(chainDepth, componentCount));
+    this.fanOut = fanOut;
+    this.checksPerComponent = checksPerComponent;
+  }
+
+  public StackState buildStackState() {
+    return StackState.withComponents(buildComponents());
+  }
+
+  public List<Component> buildComponents() {
+    Random random = new Random(SEED);
+    String[] checks = checkNames();
+    List<Component> components = new ArrayList<>(componentCount);
+    for (int index = 0; index < componentCount; index++) {
+      components.add(Component.withIdAndCheckedStates(componentId(index), checks));
+    }
+    for (int index = layerWidth(); index < componentCount; index++) {
+      int layerStart = (index / layerWidth() - 1) * layerWidth();
+      for (int dependency = 0; dependency < fanOut; dependency++) {
+        components.get(index).addDependencyOn(components.get(layerStart + random.nextInt(layerWidth())));
+      }
+    }
+    return components;
+  }
+
+  /**
+   * Events cycle through CLEAR, WARNING and ALERT so that replaying the same chain keeps causing
+   * state transitions instead of settling after the first pass.
+   */
+  public EventChain buildEvents(int eventCount) {
+    Random random = new Random(SEED + 1);
+    List<Event> events = new ArrayList<>(eventCount);
+    for (int timestamp = 1; timestamp <= eventCount; timestamp++) {
+      events.add(Event.of(
+          timestamp,
+          componentId(random.nextInt(layerWidth())),
+          checkName(random.nextInt(Math.max(1, checksPerComponent))),
+          EVENT_STATES[timestamp % EVENT_STATES.length]));
+    }
+    return EventChain.withEvents(events);
+  }
+
+  public Component firstLayerComponent(StackState stackState) {
+    return stackState.getComponent(componentId(0)).get();
+  }
+
+  public Component lastLayerComponent(StackState stackState) {
+    return stackState.getComponent(componentId(componentCount - 1)).get();
+  }
+
+  public String[] checkNames() {
+    String[] checks = new String[checksPerComponent];
+    for (int index = 0; index < checksPerComponent; index++) {
+      checks[index] = checkName(index);
+    }
+    return checks;
+  }
+
+  private int layerWidth() {
+    return Math.max(1, componentCount / chainDepth);
+  }
+
+  private String componentId(int index) {
+    return idPrefix + "component-" + index;
+  }
+
+  private static String checkName(int index) {
+    return "check-" + index;
+  }
+}
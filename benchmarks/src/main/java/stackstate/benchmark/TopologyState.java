@@ -0,0 +1,42 @@
+package stackstate.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import stackstate.StackState;
+import stackstate.columnar.ColumnarStackState;
+import stackstate.domain.event.EventChain;
+
+@State(Scope.Thread)
+public class TopologyState {
+
+  @Param({"1000", "100000"})
+  public int componentCount;
+
+  @Param({"4", "64"})
+  public int chainDepth;
+
+  @Param({"1", "4"})
+  public int fanOut;
+
+  @Param({"1", "16"})
+  public int checksPerComponent;
+
+  @Param({"1000"})
+  public int eventCount;
+
+  public SyntheticGraph graph;
+  public StackState stackState;
+  public ColumnarStackState columnarStackState;
+  public EventChain events;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    graph = new SyntheticGraph(componentCount, chainDepth, fanOut, checksPerComponent);
+    stackState = graph.buildStackState();
+    columnarStackState = ColumnarStackState.from(graph.buildStackState());
+    events = graph.buildEvents(eventCount);
+  }
+}
@@ -1,7 +1,7 @@
 #!/bin/bash
 #
 # 2018-03-05
-# Runs stack state java solution
+# Runs stack state java solution, passing any further options on (e.g. --daemon)
 #   java version "9"
 #   Java(TM) SE Runtime Environment (build 9+181)
 #   Java HotSpot(TM) 64-Bit Server VM (build 9+181, mixed mode)
@@ -10,4 +10,4 @@ JAR_FILE=stack-state-1.0.0.jar
 STATE_JSON_FILE=$1
 EVENTS_JSON_FILE=$2
 
-"${JAVA_HOME}"/bin/java -jar $JAR_FILE $STATE_JSON_FILE $EVENTS_JSON_FILE
+"${JAVA_HOME}"/bin/java -jar $JAR_FILE $STATE_JSON_FILE $EVENTS_JSON_FILE "${@:3}"
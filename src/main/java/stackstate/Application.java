@@ -3,34 +3,155 @@ package stackstate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import stackstate.domain.event.EventChain;
-import stackstate.io.reader.ExternalJsonFileReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+import stackstate.domain.StateChanges;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.Event;
+import stackstate.http.QueryServer;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.DtoJsonCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.reader.BinaryEventLogReader;
+import stackstate.io.reader.BinarySnapshotReader;
+import stackstate.io.reader.ParallelNdjsonFileReader;
 import stackstate.io.reader.StackStateReader;
-import stackstate.io.writer.ConsoleWriter;
+import stackstate.io.reader.StreamingJsonFileReader;
+import stackstate.io.sort.ExternalEventSorter;
+import stackstate.io.wal.DurableStackState;
+import stackstate.io.writer.BinarySnapshotWriter;
+import stackstate.io.writer.DeltaConsoleWriter;
 import stackstate.io.writer.StackStateWriter;
+import stackstate.io.writer.StreamingConsoleWriter;
+import stackstate.mvcc.VersionedStackState;
 
 public class Application {
 
-  private static final ObjectMapper objectMapper = new ObjectMapper()
-      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
-      .configure(SerializationFeature.INDENT_OUTPUT, true);
-
   public static void main(String[] args) {
-    if (args.length < 2) {
-      System.out.println("Two json files are required");
-      return;
-    }
-
-    StackStateReader reader = new ExternalJsonFileReader(args[0], args[1], objectMapper);
     try {
-      StackState stackState = reader.readInitialState();
-      EventChain events = reader.readEvents();
-      StackState finalState = new StateCalculator().processEvents(stackState, events);
-      StackStateWriter writer = new ConsoleWriter(finalState, objectMapper);
-      writer.write();
+      ApplicationOptions options = ApplicationOptions.parse(args);
+      Optional<StateChanges> changes = options.isDelta() ? Optional.of(new StateChanges()) : Optional.empty();
+      StackState finalState;
+      if (options.isDaemon()) {
+        ObjectMapper objectMapper = objectMapper();
+        finalState = runDaemon(readerFor(options, ObjectMapperDtoCodec.of(objectMapper)), options, changes,
+            objectMapper);
+      } else {
+        DtoCodec codec = options.isFastJson() ? DtoJsonCodec.indented() : ObjectMapperDtoCodec.of(objectMapper());
+        StackStateReader reader = readerFor(options, codec);
+        finalState = options.getDurableDirectory().isPresent()
+            ? processDurably(reader, options, changes)
+            : process(reader, options, changes);
+        StackStateWriter writer = changes.isPresent()
+            ? new DeltaConsoleWriter(changes.get(), codec)
+            : new StreamingConsoleWriter(finalState, codec);
+        writer.write();
+      }
+      if (options.getSnapshotOutputPath().isPresent()) {
+        new BinarySnapshotWriter(finalState, Paths.get(options.getSnapshotOutputPath().get())).write();
+      }
     } catch (IllegalArgumentException e) {
       System.out.println(e.getMessage());
     }
   }
 
+  private static ObjectMapper objectMapper() {
+    return new ObjectMapper()
+        .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+        .configure(SerializationFeature.INDENT_OUTPUT, true);
+  }
+
+  private static StackStateReader readerFor(ApplicationOptions options, DtoCodec codec) {
+    StackStateReader reader;
+    if (options.isBinaryEvents()) {
+      reader = new BinaryEventLogReader(options.getStateFilePath(), options.getEventsFilePath(), codec);
+    } else if (options.isNdjsonEvents()) {
+      reader = new ParallelNdjsonFileReader(options.getStateFilePath(), options.getEventsFilePath(), codec);
+    } else {
+      reader = new StreamingJsonFileReader(options.getStateFilePath(), options.getEventsFilePath(), codec);
+    }
+    return options.isBinaryState() ? new BinarySnapshotReader(options.getStateFilePath(), reader) : reader;
+  }
+
+  private static StackState process(StackStateReader reader, ApplicationOptions options,
+      Optional<StateChanges> changes) {
+    StackState stackState = reader.readInitialState();
+    changes.ifPresent(stackState::onStateChange);
+    if (options.isNdjsonEvents()) {
+      // merged from sorted chunks, so already in timestamp order
+      ColumnarEventChain events = (ColumnarEventChain) reader.readEvents();
+      return new StateCalculator().processOrderedEvents(stackState, events);
+    }
+    try (Stream<Event> events = orderedEvents(reader, options)) {
+      return new StateCalculator().processOrderedEvents(stackState, events);
+    }
+  }
+
+  private static StackState processDurably(StackStateReader reader, ApplicationOptions options,
+      Optional<StateChanges> changes) {
+    Path directory = Paths.get(options.getDurableDirectory().get());
+    try (DurableStackState durableState = DurableStackState.open(directory, reader::readInitialState);
+        Stream<Event> events = orderedEvents(reader, options)) {
+      changes.ifPresent(durableState.getStackState()::onStateChange);
+      events.forEach(durableState::apply);
+      return durableState.getStackState();
+    }
+  }
+
+  private static StackState runDaemon(StackStateReader reader, ApplicationOptions options,
+      Optional<StateChanges> changes, ObjectMapper objectMapper) {
+    EventDaemon.EventDaemonBuilder daemon = EventDaemon.builder()
+        .objectMapper(objectMapper)
+        .changes(changes.orElse(null));
+    options.getEmitIntervalSeconds().ifPresent(seconds -> daemon.emitInterval(Duration.ofSeconds(seconds)));
+    options.getMaxLateness().ifPresent(lateness -> daemon.maxLateness((long) lateness));
+    if (!options.getDurableDirectory().isPresent()) {
+      StackState stackState = reader.readInitialState();
+      changes.ifPresent(stackState::onStateChange);
+      runDaemon(daemon.stackState(stackState), stackState, () -> {
+      }, options, objectMapper);
+      return stackState;
+    }
+    Path directory = Paths.get(options.getDurableDirectory().get());
+    try (DurableStackState durableState = DurableStackState.open(directory, reader::readInitialState)) {
+      changes.ifPresent(durableState.getStackState()::onStateChange);
+      runDaemon(daemon.stackState(durableState.getStackState()).applier(durableState::apply),
+          durableState.getStackState(), durableState::commit, options, objectMapper);
+      return durableState.getStackState();
+    }
+  }
+
+  private static void runDaemon(EventDaemon.EventDaemonBuilder daemon, StackState stackState, Runnable idle,
+      ApplicationOptions options, ObjectMapper objectMapper) {
+    if (!options.getHttpPort().isPresent()) {
+      daemon.idle(idle).build().run();
+      return;
+    }
+    VersionedStackState versions = VersionedStackState.of(stackState);
+    QueryServer server = QueryServer.start(versions, objectMapper, options.getHttpPort().getAsInt());
+    try {
+      daemon.idle(() -> {
+        idle.run();
+        versions.publish();
+      }).build().run();
+    } finally {
+      server.close();
+    }
+  }
+
+  private static Stream<Event> orderedEvents(StackStateReader reader, ApplicationOptions options) {
+    Stream<Event> events = reader.streamEvents();
+    if (options.isNdjsonEvents()) {
+      return events;
+    }
+    if (!options.getSortRunSize().isPresent()) {
+      // holds every event in memory: only --sort-run-size bounds it
+      return events.sorted();
+    }
+    return ExternalEventSorter.withRunSize(options.getSortRunSize().getAsInt()).sort(events);
+  }
+
 }
@@ -0,0 +1,174 @@
+package stackstate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Command line arguments: the initial state and events files, or only the initial state file in daemon
+ * mode, followed by any of
+ * <ul>
+ * <li>{@code --sort-run-size <events>}: sort the events on disk, holding at most that many of them
+ * in memory, instead of sorting them all in memory; not in daemon mode, as for the next two</li>
+ * <li>{@code --binary-events}: the events file is a binary event log instead of json</li>
+ * <li>{@code --ndjson-events}: the events file holds newline-delimited json events, parsed and
+ * sorted on every core; not with {@code --sort-run-size}</li>
+ * <li>{@code --binary-state}: the initial state file is a binary snapshot instead of json, in daemon
+ * mode too</li>
+ * <li>{@code --write-snapshot <file>}: also write the final state to a binary snapshot</li>
+ * <li>{@code --durable <directory>}: log the events and checkpoint the state in that directory,
+ * carrying on from what it holds, if anything, instead of from the initial state file</li>
+ * <li>{@code --daemon}: keep running, applying newline-delimited json events from stdin (see
+ * {@link EventDaemon})</li>
+ * <li>{@code --emit-interval <seconds>}: in daemon mode, also write the state at that interval</li>
+ * <li>{@code --max-lateness <timestamp units>}: in daemon mode, accept events out of order by up to
+ * that much, which may be 0, and apply them in timestamp order</li>
+ * <li>{@code --http-port <port>}: in daemon mode, also answer queries about the state on that port
+ * of the loopback interface (see {@link stackstate.http.QueryServer})</li>
+ * <li>{@code --fast-json}: read and write json without building an object mapper, for a faster
+ * start (see {@link stackstate.io.codec.DtoJsonCodec}); not in daemon mode</li>
+ * <li>{@code --delta}: write only the components whose states changed, with their previous states,
+ * instead of every component</li>
+ * </ul>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ApplicationOptions {
+
+  private static final String SORT_RUN_SIZE = "--sort-run-size";
+  private static final String BINARY_EVENTS = "--binary-events";
+  private static final String NDJSON_EVENTS = "--ndjson-events";
+  private static final String BINARY_STATE = "--binary-state";
+  private static final String WRITE_SNAPSHOT = "--write-snapshot";
+  private static final String DURABLE = "--durable";
+  private static final String DAEMON = "--daemon";
+  private static final String EMIT_INTERVAL = "--emit-interval";
+  private static final String DELTA = "--delta";
+  private static final String HTTP_PORT = "--http-port";
+  private static final String MAX_LATENESS = "--max-lateness";
+  private static final String FAST_JSON = "--fast-json";
+
+  private String stateFilePath;
+  private String eventsFilePath;
+  private OptionalInt sortRunSize = OptionalInt.empty();
+  private boolean binaryEvents;
+  private boolean ndjsonEvents;
+  private boolean binaryState;
+  private Optional<String> snapshotOutputPath = Optional.empty();
+  private Optional<String> durableDirectory = Optional.empty();
+  private boolean daemon;
+  private OptionalInt emitIntervalSeconds = OptionalInt.empty();
+  private boolean delta;
+  private OptionalInt httpPort = OptionalInt.empty();
+  private OptionalInt maxLateness = OptionalInt.empty();
+  private boolean fastJson;
+
+  public static ApplicationOptions parse(String... args) {
+    ApplicationOptions options = new ApplicationOptions();
+    List<String> files = new ArrayList<>();
+    for (int index = 0; index < args.length; index++) {
+      String arg = args[index];
+      if (arg.equals(SORT_RUN_SIZE)) {
+        options.sortRunSize = OptionalInt.of(positiveNumber(arg, valueOf(arg, args, ++index)));
+      } else if (arg.equals(BINARY_EVENTS)) {
+        options.binaryEvents = true;
+      } else if (arg.equals(NDJSON_EVENTS)) {
+        options.ndjsonEvents = true;
+      } else if (arg.equals(BINARY_STATE)) {
+        options.binaryState = true;
+      } else if (arg.equals(WRITE_SNAPSHOT)) {
+        options.snapshotOutputPath = Optional.of(valueOf(arg, args, ++index));
+      } else if (arg.equals(DURABLE)) {
+        options.durableDirectory = Optional.of(valueOf(arg, args, ++index));
+      } else if (arg.equals(DAEMON)) {
+        options.daemon = true;
+      } else if (arg.equals(DELTA)) {
+        options.delta = true;
+      } else if (arg.equals(EMIT_INTERVAL)) {
+        options.emitIntervalSeconds = OptionalInt.of(positiveNumber(arg, valueOf(arg, args, ++index)));
+      } else if (arg.equals(HTTP_PORT)) {
+        options.httpPort = OptionalInt.of(positiveNumber(arg, valueOf(arg, args, ++index)));
+      } else if (arg.equals(MAX_LATENESS)) {
+        options.maxLateness = OptionalInt.of(nonNegativeNumber(arg, valueOf(arg, args, ++index)));
+      } else if (arg.equals(FAST_JSON)) {
+        options.fastJson = true;
+      } else if (arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unknown option " + arg);
+      } else {
+        files.add(arg);
+      }
+    }
+    if (options.daemon && files.isEmpty()) {
+      throw new IllegalArgumentException("The initial state file is required");
+    }
+    if (!options.daemon && files.size() < 2) {
+      throw new IllegalArgumentException("Two json files are required");
+    }
+    if (options.binaryEvents && options.ndjsonEvents) {
+      throw new IllegalArgumentException("Options " + BINARY_EVENTS + " and " + NDJSON_EVENTS + " exclude each other");
+    }
+    if (options.ndjsonEvents && options.sortRunSize.isPresent()) {
+      throw new IllegalArgumentException("Options " + NDJSON_EVENTS + " and " + SORT_RUN_SIZE + " exclude each other");
+    }
+    if (options.daemon) {
+      excludeDaemon(FAST_JSON, options.fastJson);
+      excludeDaemon(BINARY_EVENTS, options.binaryEvents);
+      excludeDaemon(NDJSON_EVENTS, options.ndjsonEvents);
+      excludeDaemon(SORT_RUN_SIZE, options.sortRunSize.isPresent());
+    } else {
+      requireDaemon(MAX_LATENESS, options.maxLateness);
+      requireDaemon(EMIT_INTERVAL, options.emitIntervalSeconds);
+      requireDaemon(HTTP_PORT, options.httpPort);
+    }
+    options.stateFilePath = files.get(0);
+    options.eventsFilePath = options.daemon ? null : files.get(1);
+    return options;
+  }
+
+  private static String valueOf(String option, String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Option " + option + " needs a value");
+    }
+    return args[index];
+  }
+
+  private static void excludeDaemon(String option, boolean given) {
+    if (given) {
+      throw new IllegalArgumentException("Options " + DAEMON + " and " + option + " exclude each other");
+    }
+  }
+
+  private static void requireDaemon(String option, OptionalInt value) {
+    if (value.isPresent()) {
+      throw new IllegalArgumentException("Option " + option + " needs " + DAEMON);
+    }
+  }
+
+  private static int positiveNumber(String option, String value) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number > 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Option " + option + " needs a positive number");
+  }
+
+  private static int nonNegativeNumber(String option, String value) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number >= 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Option " + option + " needs a number that is not negative");
+  }
+}
@@ -0,0 +1,59 @@
+package stackstate;
+
+import stackstate.domain.Component;
+
+/**
+ * The components of one stack state by the symbol of their id, in an open addressing table sized to
+ * the components it holds rather than to the symbols the process ever gave out. The first component
+ * put with a symbol is kept.
+ */
+final class ComponentIndex {
+
+  private int[] symbols = new int[16];
+  private Component[] components = new Component[16];
+  private int size;
+
+  void put(Component component) {
+    if (2 * (size + 1) > components.length) {
+      grow();
+    }
+    int slot = slotOf(component.getSymbol());
+    if (components[slot] == null) {
+      symbols[slot] = component.getSymbol();
+      components[slot] = component;
+      size++;
+    }
+  }
+
+  /**
+   * @return the component of the symbol, null if there is none, as for {@link
+   * stackstate.domain.SymbolTable#UNKNOWN}
+   */
+  Component get(int symbol) {
+    return symbol < 0 ? null : components[slotOf(symbol)];
+  }
+
+  private int slotOf(int symbol) {
+    int mask = components.length - 1;
+    int hash = symbol * 0x9E3779B9;
+    int slot = (hash ^ hash >>> 16) & mask;
+    while (components[slot] != null && symbols[slot] != symbol) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    int[] oldSymbols = symbols;
+    Component[] oldComponents = components;
+    symbols = new int[oldSymbols.length * 2];
+    components = new Component[oldComponents.length * 2];
+    for (int i = 0; i < oldComponents.length; i++) {
+      if (oldComponents[i] != null) {
+        int slot = slotOf(oldSymbols[i]);
+        symbols[slot] = oldSymbols[i];
+        components[slot] = oldComponents[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package stackstate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.Builder;
+import stackstate.domain.StateChanges;
+import stackstate.domain.event.Event;
+import stackstate.ingest.EventReorderBuffer;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.exception.IllegalEventConfigurationException;
+import stackstate.io.reader.NdjsonEventParser;
+import stackstate.io.writer.DeltaConsoleWriter;
+import stackstate.io.writer.StreamingConsoleWriter;
+
+/**
+ * Resident mode: the topology is loaded once, then events are read as newline-delimited json, one
+ * event object per line, and applied as they arrive. The whole state is written, as the same
+ * document the one-shot mode prints, whenever a line reads {@code state}, every
+ * {@code emitInterval} if one is set, and once more when the input ends. Given the
+ * {@link StateChanges} tracking the stack state, only the changes since the previous write are
+ * written instead. Given a {@code maxLateness}, events may arrive out of order by up to that many
+ * timestamp units: they go through an {@link EventReorderBuffer} and are applied in timestamp order.
+ *
+ * <p>A line that is not a valid event is reported on the error stream and skipped. Whenever no more
+ * input is buffered, and at least every {@value #IDLE_EVERY} lines under a steady stream, the
+ * {@code idle} hook runs, e.g. to commit or publish the events read so far.
+ */
+public class EventDaemon {
+
+  static final String STATE_COMMAND = "state";
+  static final int IDLE_EVERY = 1024;
+
+  private final Object lock = new Object();
+  private final StackState stackState;
+  private final Consumer<Event> applier;
+  private final DtoCodec codec;
+  private final NdjsonEventParser parser;
+  private final InputStream in;
+  private final OutputStream out;
+  private final PrintStream errors;
+  private final Duration emitInterval;
+  private final Runnable idle;
+  private final StateChanges changes;
+  private final EventReorderBuffer reorderBuffer;
+
+  /**
+   * Only the stack state and the object mapper are required: events are applied straight to the
+   * stack state and read from stdin, states go to stdout and errors to stderr by default.
+   */
+  @Builder
+  public EventDaemon(StackState stackState, Consumer<Event> applier, ObjectMapper objectMapper, InputStream in,
+      OutputStream out, PrintStream errors, Duration emitInterval, Runnable idle, StateChanges changes,
+      Long maxLateness) {
+    this.stackState = stackState;
+    this.applier = applier != null ? applier : event -> stackState.getComponent(event.getComponentSymbol())
+        .ifPresent(component -> component.apply(event));
+    this.codec = ObjectMapperDtoCodec.of(objectMapper);
+    this.parser = new NdjsonEventParser(codec);
+    this.in = in != null ? in : System.in;
+    this.out = out != null ? out : System.out;
+    this.errors = errors != null ? errors : System.err;
+    this.emitInterval = emitInterval;
+    this.idle = idle != null ? idle : () -> {
+    };
+    this.changes = changes;
+    this.reorderBuffer = maxLateness == null ? null : EventReorderBuffer.withLateness(maxLateness, this.applier);
+  }
+
+  /**
+   * Runs until the input ends.
+   */
+  public void run() {
+    ScheduledExecutorService emitter = emitInterval == null ? null : startEmitter();
+    try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      String line;
+      while ((line = lines.readLine()) != null) {
+        lineNumber++;
+        handle(line.trim(), lineNumber);
+        if (!lines.ready() || lineNumber % IDLE_EVERY == 0) {
+          synchronized (lock) {
+            idle.run();
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("I/O error: " + e.getMessage());
+    } finally {
+      if (emitter != null) {
+        emitter.shutdownNow();
+      }
+    }
+    if (reorderBuffer != null) {
+      synchronized (lock) {
+        reorderBuffer.flush();
+      }
+    }
+    emit();
+  }
+
+  public void emit() {
+    synchronized (lock) {
+      if (changes == null) {
+        new StreamingConsoleWriter(stackState, codec, out).write();
+      } else {
+        new DeltaConsoleWriter(changes, codec, out).write();
+        changes.reset();
+      }
+    }
+  }
+
+  private void handle(String line, long lineNumber) {
+    if (line.isEmpty()) {
+      return;
+    }
+    if (line.equals(STATE_COMMAND)) {
+      emit();
+      return;
+    }
+    Event event;
+    try {
+      event = parser.parse(line);
+    } catch (IllegalArgumentException e) {
+      errors.println("Skipping line " + lineNumber + ": " + e.getMessage());
+      return;
+    }
+    synchronized (lock) {
+      if (reorderBuffer == null) {
+        applier.accept(event);
+        return;
+      }
+      try {
+        reorderBuffer.offer(event);
+      } catch (IllegalEventConfigurationException e) {
+        errors.println("Skipping line " + lineNumber + ": " + e.getMessage());
+      }
+    }
+  }
+
+  private ScheduledExecutorService startEmitter() {
+    ScheduledExecutorService emitter = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "state-emitter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = emitInterval.toMillis();
+    emitter.scheduleAtFixedRate(this::emit, interval, interval, TimeUnit.MILLISECONDS);
+    return emitter;
+  }
+}
@@ -0,0 +1,86 @@
+package stackstate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import stackstate.domain.Component;
+
+/**
+ * The weakly connected components of a dependency graph: components that no chain of dependencies
+ * or dependents links together, so that events on one island never change the states of another.
+ * Components outside the stack state still link the islands they are attached to.
+ */
+class Islands {
+
+  private final Map<Component, Integer> islands;
+  private final int count;
+
+  private Islands(Map<Component, Integer> islands, int count) {
+    this.islands = islands;
+    this.count = count;
+  }
+
+  static Islands of(List<Component> components) {
+    Map<Component, Integer> positions = new IdentityHashMap<>(components.size());
+    List<Component> reachable = new ArrayList<>(components.size());
+    Deque<Component> pending = new ArrayDeque<>(components);
+    while (!pending.isEmpty()) {
+      Component component = pending.poll();
+      if (positions.putIfAbsent(component, reachable.size()) == null) {
+        reachable.add(component);
+        pending.addAll(component.getDependencies());
+        pending.addAll(component.getDependents());
+      }
+    }
+    int[] parents = new int[reachable.size()];
+    for (int position = 0; position < parents.length; position++) {
+      parents[position] = position;
+    }
+    for (int position = 0; position < parents.length; position++) {
+      for (Component dependency : reachable.get(position).getDependencies()) {
+        union(parents, position, positions.get(dependency));
+      }
+      for (Component dependent : reachable.get(position).getDependents()) {
+        union(parents, position, positions.get(dependent));
+      }
+    }
+    Map<Component, Integer> islands = new IdentityHashMap<>(components.size());
+    int[] islandOfRoot = new int[parents.length];
+    int count = 0;
+    for (Component component : components) {
+      int root = find(parents, positions.get(component));
+      if (islandOfRoot[root] == 0) {
+        islandOfRoot[root] = ++count;
+      }
+      islands.put(component, islandOfRoot[root] - 1);
+    }
+    return new Islands(islands, count);
+  }
+
+  int count() {
+    return count;
+  }
+
+  int islandOf(Component component) {
+    return islands.get(component);
+  }
+
+  private static void union(int[] parents, int first, int second) {
+    int firstRoot = find(parents, first);
+    int secondRoot = find(parents, second);
+    if (firstRoot != secondRoot) {
+      parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+    }
+  }
+
+  private static int find(int[] parents, int position) {
+    while (parents[position] != position) {
+      parents[position] = parents[parents[position]];
+      position = parents[position];
+    }
+    return position;
+  }
+}
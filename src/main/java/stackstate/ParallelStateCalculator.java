@@ -0,0 +1,110 @@
+package stackstate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+/**
+ * Same final state as {@link StateCalculator}, with the events of each island of the stack state
+ * (see {@link Islands}) processed in timestamp order on a fork join pool. Islands share no component,
+ * so they never see each other's changes and can run side by side. The islands are found as the
+ * stack state is built; the events are sorted and routed to their islands on the pool too, and the
+ * islands are split between tasks by how many events they have, not by how many they are.
+ *
+ * <p>Components of different islands change on different threads at the same time, so a stack
+ * state with a listener (see {@link StackState#onStateChange}) is rejected: none of the listeners,
+ * such as {@link stackstate.domain.StateChanges}, is safe to call that way.
+ */
+public class ParallelStateCalculator {
+
+  private static final int NO_ISLAND = -1;
+
+  private final ForkJoinPool pool;
+
+  public ParallelStateCalculator() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  public ParallelStateCalculator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public StackState processEvents(StackState initialState, EventChain eventChain) {
+    return processEvents(initialState, eventChain.stream());
+  }
+
+  public StackState processEvents(StackState initialState, Stream<Event> events) {
+    if (initialState.hasStateChangeListener()) {
+      throw new IllegalArgumentException("A stack state with a state change listener cannot be processed in parallel");
+    }
+    Islands islands = initialState.islands();
+    // grouping an ordered stream keeps the events of each island in timestamp order
+    Map<Integer, List<Event>> eventsByIsland = pool.submit(() -> events
+        .parallel()
+        .sorted()
+        .collect(Collectors.groupingBy(event -> initialState.getComponent(event.getComponentSymbol())
+            .map(islands::islandOf)
+            .orElse(NO_ISLAND))))
+        .join();
+    eventsByIsland.remove(NO_ISLAND);
+    List<List<Event>> busyIslands = new ArrayList<>(eventsByIsland.values());
+    long[] eventEnds = new long[busyIslands.size() + 1];
+    for (int island = 0; island < busyIslands.size(); island++) {
+      eventEnds[island + 1] = eventEnds[island] + busyIslands.get(island).size();
+    }
+    pool.invoke(new IslandsTask(initialState, busyIslands, eventEnds, 0, busyIslands.size()));
+    return initialState;
+  }
+
+  private static class IslandsTask extends RecursiveAction {
+
+    private static final long serialVersionUID = -2307618827512949316L;
+
+    private final StackState stackState;
+    private final List<List<Event>> eventsByIsland;
+    // events of the islands before each island, and of all of them at the end
+    private final long[] eventEnds;
+    private final int from;
+    private final int to;
+
+    private IslandsTask(StackState stackState, List<List<Event>> eventsByIsland, long[] eventEnds, int from,
+        int to) {
+      this.stackState = stackState;
+      this.eventsByIsland = eventsByIsland;
+      this.eventEnds = eventEnds;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int middle = middle();
+        invokeAll(
+            new IslandsTask(stackState, eventsByIsland, eventEnds, from, middle),
+            new IslandsTask(stackState, eventsByIsland, eventEnds, middle, to));
+      } else if (to > from) {
+        for (Event event : eventsByIsland.get(from)) {
+          stackState.getComponent(event.getComponentSymbol()).ifPresent(component -> component.apply(event));
+        }
+      }
+    }
+
+    /**
+     * @return where the islands split into two halves with about as many events each
+     */
+    private int middle() {
+      long half = eventEnds[from] + (eventEnds[to] - eventEnds[from]) / 2;
+      int middle = Arrays.binarySearch(eventEnds, from + 1, to, half);
+      middle = middle >= 0 ? middle : -middle - 1;
+      return Math.min(Math.max(middle, from + 1), to - 1);
+    }
+  }
+}
@@ -1,18 +1,36 @@
 package stackstate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import stackstate.domain.Component;
+import stackstate.domain.StateChangeListener;
+import stackstate.domain.SymbolTable;
+import stackstate.domain.TopologicalRanking;
 
-@Builder
-@AllArgsConstructor
+/**
+ * The components, found by id through the {@link SymbolTable} symbol of the id, which events carry
+ * already looked up. Their ids are interned as the components are built.
+ */
 public class StackState {
 
   private final List<Component> components;
+  private final ComponentIndex componentsBySymbol = new ComponentIndex();
+  private long rankedEdges;
+  private Islands islands;
+  private long islandEdges;
+  private StateChangeListener listener = StateChangeListener.NONE;
+
+  @Builder
+  public StackState(List<Component> components) {
+    this.components = new ArrayList<>(components);
+    this.components.forEach(this::index);
+    rank();
+    findIslands();
+  }
 
   public static StackState withComponent(Component component) {
     return withComponents(component);
@@ -29,9 +47,56 @@ public class StackState {
   }
 
   public Optional<Component> getComponent(String componentId) {
-    return components.stream()
-        .filter(component -> component.getId().equals(componentId))
-        .findFirst();
+    int symbol = SymbolTable.find(componentId);
+    return symbol == SymbolTable.UNKNOWN ? Optional.empty() : getComponent(symbol);
+  }
+
+  public Optional<Component> getComponent(int componentSymbol) {
+    return Optional.ofNullable(componentsBySymbol.get(componentSymbol));
+  }
+
+  public void addComponent(Component component) {
+    components.add(component);
+    index(component);
+    component.onStateChange(listener);
+    TopologicalRanking.assign(component);
+    rankedEdges += component.getDependents().size() + component.getDependencies().size();
+    islands = null;
+  }
+
+  /**
+   * Tells the listener about every state change of the components of this stack state, including
+   * the ones added later, after any listener added before.
+   */
+  public void onStateChange(StateChangeListener listener) {
+    this.listener = this.listener == StateChangeListener.NONE ? listener : this.listener.andThen(listener);
+    components.forEach(component -> component.onStateChange(this.listener));
+  }
+
+  boolean hasStateChangeListener() {
+    return listener != StateChangeListener.NONE;
+  }
+
+  /**
+   * Ranks the components again if dependencies were added after they were last ranked. Dependencies
+   * are never removed, so a change in the number of edges is enough to tell. Edges are counted over
+   * the whole process, in constant time: edges added to other stack states only cost a ranking.
+   */
+  void refreshTopology() {
+    if (edgeCount() != rankedEdges) {
+      rank();
+    }
+  }
+
+  /**
+   * The islands of this stack state, found as it is built, and again only if components or
+   * dependencies were added since.
+   */
+  Islands islands() {
+    if (islands == null || edgeCount() != islandEdges) {
+      findIslands();
+    }
+    return islands;
   }
 
   public int size() {
@@ -42,4 +107,22 @@ public class StackState {
     return components.stream();
   }
 
+  private void rank() {
+    TopologicalRanking.assign(components);
+    rankedEdges = edgeCount();
+  }
+
+  private void findIslands() {
+    islandEdges = edgeCount();
+    islands = Islands.of(components);
+  }
+
+  private static long edgeCount() {
+    return Component.dependenciesAdded();
+  }
+
+  private void index(Component component) {
+    componentsBySymbol.put(component);
+  }
+
 }
@@ -1,14 +1,81 @@
 package stackstate;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+import stackstate.domain.Component;
+import stackstate.domain.EventBatch;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.Event;
 import stackstate.domain.event.EventChain;
 
 public class StateCalculator {
 
   public StackState processEvents(StackState initialState, EventChain eventChain) {
-    eventChain.stream()
+    if (eventChain instanceof ColumnarEventChain) {
+      return processOrderedEvents(initialState, ((ColumnarEventChain) eventChain).sorted());
+    }
+    return processEvents(initialState, eventChain.stream());
+  }
+
+  /**
+   * Sorts the events in memory before applying them, so every event is held at once however the
+   * stream is read. Use {@link #processOrderedEvents(StackState, Stream)} with
+   * {@link stackstate.io.sort.ExternalEventSorter} to keep memory bounded.
+   */
+  public StackState processEvents(StackState initialState, Stream<Event> events) {
+    return processOrderedEvents(initialState, events.sorted());
+  }
+
+  /**
+   * Applies events that are already in timestamp order, such as the ones coming out of
+   * {@link stackstate.io.sort.ExternalEventSorter}, without sorting them in memory first.
+   */
+  public StackState processOrderedEvents(StackState initialState, Stream<Event> events) {
+    initialState.refreshTopology();
+    events.forEach(event -> initialState.getComponent(event.getComponentSymbol())
+        .ifPresent(component -> component.apply(event)));
+    return initialState;
+  }
+
+  /**
+   * Same as {@link #processOrderedEvents(StackState, Stream)}, walking the columns of the events
+   * without making an event object for any of them.
+   */
+  public StackState processOrderedEvents(StackState initialState, ColumnarEventChain events) {
+    initialState.refreshTopology();
+    for (int index = 0; index < events.size(); index++) {
+      Optional<Component> component = initialState.getComponent(events.componentAt(index));
+      if (component.isPresent()) {
+        component.get().apply(events.checkAt(index), events.stateAt(index));
+      }
+    }
+    return initialState;
+  }
+
+  public StackState processEventsInBatches(StackState initialState, EventChain eventChain, int batchSize) {
+    return processEventsInBatches(initialState, eventChain.stream(), batchSize);
+  }
+
+  /**
+   * Same final state as {@link #processEvents(StackState, Stream)}, but derived states are only
+   * propagated once every {@code batchSize} events, over all the components those events touched.
+   */
+  public StackState processEventsInBatches(StackState initialState, Stream<Event> events, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    initialState.refreshTopology();
+    EventBatch batch = new EventBatch();
+    events
         .sorted()
-        .forEach(event -> initialState.getComponent(event.getComponent())
-            .ifPresent(component -> component.apply(event)));
+        .forEach(event -> initialState.getComponent(event.getComponentSymbol())
+            .ifPresent(component -> {
+              batch.apply(component, event);
+              if (batch.size() >= batchSize) {
+                batch.flush();
+              }
+            }));
+    batch.flush();
     return initialState;
   }
 
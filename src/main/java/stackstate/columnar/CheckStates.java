@@ -0,0 +1,105 @@
+package stackstate.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from a (component, check) pair to the code of its state, packed into
+ * primitive arrays.
+ */
+class CheckStates {
+
+  static final byte ABSENT = -1;
+
+  private static final long FREE = -1L;
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private byte[] states;
+  private int mask;
+  private int size;
+
+  CheckStates(int expectedSize) {
+    allocate(Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1));
+  }
+
+  interface Visitor {
+
+    void visit(int component, int check, byte state);
+  }
+
+  /**
+   * @return the previous state code of the check, or {@link #ABSENT}
+   */
+  byte put(int component, int check, byte state) {
+    long key = keyOf(component, check);
+    int slot = slotOf(key);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        byte previous = states[slot];
+        states[slot] = state;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    states[slot] = state;
+    if (++size > keys.length * LOAD_FACTOR) {
+      grow();
+    }
+    return ABSENT;
+  }
+
+  byte get(int component, int check) {
+    long key = keyOf(component, check);
+    for (int slot = slotOf(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return states[slot];
+      }
+    }
+    return ABSENT;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void forEach(Visitor visitor) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != FREE) {
+        visitor.visit((int) (keys[slot] >>> 32), (int) keys[slot], states[slot]);
+      }
+    }
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    byte[] oldStates = states;
+    allocate(oldKeys.length * 2);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldKeys[slot] != FREE) {
+        int newSlot = slotOf(oldKeys[slot]);
+        while (keys[newSlot] != FREE) {
+          newSlot = (newSlot + 1) & mask;
+        }
+        keys[newSlot] = oldKeys[slot];
+        states[newSlot] = oldStates[slot];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    states = new byte[capacity];
+    mask = capacity - 1;
+    Arrays.fill(keys, FREE);
+  }
+
+  private int slotOf(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private static long keyOf(int component, int check) {
+    return ((long) component << 32) | (check & 0xFFFFFFFFL);
+  }
+}
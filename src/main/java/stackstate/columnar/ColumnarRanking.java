@@ -0,0 +1,104 @@
+package stackstate.columnar;
+
+import java.util.Arrays;
+
+/**
+ * The ranking of {@link stackstate.domain.TopologicalRanking}, over adjacency arrays: every
+ * component ranks above the components it depends on, and components of a dependency cycle share
+ * a rank. Components and their dependents are visited in the same order, so both engines agree on
+ * the ranks of the same graph.
+ */
+class ColumnarRanking {
+
+  private static final int UNVISITED = -1;
+
+  private final int[] dependentOffsets;
+  private final int[] dependents;
+  private final int[] index;
+  private final int[] lowLink;
+  private final boolean[] onStack;
+  private final int[] cycleOf;
+  private final int[] cycleStack;
+  private final int[] callStack;
+  private final int[] pendingDependent;
+
+  private int visited;
+  private int cycles;
+  private int cycleStackSize;
+  private int callStackSize;
+
+  private ColumnarRanking(int[] dependentOffsets, int[] dependents) {
+    int size = dependentOffsets.length - 1;
+    this.dependentOffsets = dependentOffsets;
+    this.dependents = dependents;
+    this.index = new int[size];
+    this.lowLink = new int[size];
+    this.onStack = new boolean[size];
+    this.cycleOf = new int[size];
+    this.cycleStack = new int[size];
+    this.callStack = new int[size];
+    this.pendingDependent = new int[size];
+    Arrays.fill(index, UNVISITED);
+  }
+
+  static int[] ranks(int[] dependentOffsets, int[] dependents) {
+    return new ColumnarRanking(dependentOffsets, dependents).ranks();
+  }
+
+  private int[] ranks() {
+    for (int component = 0; component < index.length; component++) {
+      if (index[component] == UNVISITED) {
+        visitFrom(component);
+      }
+    }
+    int[] ranks = new int[index.length];
+    for (int component = 0; component < ranks.length; component++) {
+      ranks[component] = cycles - 1 - cycleOf[component];
+    }
+    return ranks;
+  }
+
+  private void visitFrom(int root) {
+    enter(root);
+    while (callStackSize > 0) {
+      int current = callStack[callStackSize - 1];
+      if (pendingDependent[current] < dependentOffsets[current + 1]) {
+        int dependent = dependents[pendingDependent[current]++];
+        if (index[dependent] == UNVISITED) {
+          enter(dependent);
+        } else if (onStack[dependent]) {
+          lowLink[current] = Math.min(lowLink[current], index[dependent]);
+        }
+      } else {
+        leave(current);
+      }
+    }
+  }
+
+  private void enter(int component) {
+    index[component] = visited;
+    lowLink[component] = visited;
+    visited++;
+    onStack[component] = true;
+    cycleStack[cycleStackSize++] = component;
+    callStack[callStackSize++] = component;
+    pendingDependent[component] = dependentOffsets[component];
+  }
+
+  private void leave(int component) {
+    callStackSize--;
+    if (callStackSize > 0) {
+      int caller = callStack[callStackSize - 1];
+      lowLink[caller] = Math.min(lowLink[caller], lowLink[component]);
+    }
+    if (lowLink[component] == index[component]) {
+      int member;
+      do {
+        member = cycleStack[--cycleStackSize];
+        onStack[member] = false;
+        cycleOf[member] = cycles;
+      } while (member != component);
+      cycles++;
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package stackstate.columnar;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.SymbolTable;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.state.CheckedState;
+import stackstate.domain.state.DerivedState;
+import stackstate.domain.state.OwnState;
+
+/**
+ * A stack state laid out as columns indexed by component position instead of one object graph per
+ * component: own and derived states are byte arrays, dependencies and dependents are adjacency
+ * arrays (the targets of component {@code c} sit between {@code offsets[c]} and
+ * {@code offsets[c + 1]}), and check states live in a single primitive map. Components and checks
+ * are found by their {@link SymbolTable} symbols, so applying an event hashes no string. Events
+ * follow the same rules as {@link Component#apply(Event)}.
+ *
+ * <p>Meant to hold very large topologies once loaded: it is built from and turned back into a
+ * {@link StackState} at the I/O boundary, so loading still needs the object stack state in memory
+ * for a while. Dependencies on components outside the stack state are left out.
+ */
+public class ColumnarStackState {
+
+  private final String[] ids;
+  private final SymbolIndex componentIndex;
+  private final byte[] ownStates;
+  private final byte[] derivedStates;
+  private final int[] dependencyOffsets;
+  private final int[] dependencies;
+  private final int[] dependentOffsets;
+  private final int[] dependents;
+  private final int[] ranks;
+  private final int[] checkCounts;
+  private final int[] dependencyCounts;
+  private final CheckStates checkStates;
+  private final List<String> checkNames = new ArrayList<>();
+  private final SymbolIndex checkIndex = new SymbolIndex(16);
+  private final boolean[] scheduled;
+  private final RankedWorklist pending = new RankedWorklist();
+
+  private ColumnarStackState(List<Component> components) {
+    int size = components.size();
+    Map<Component, Integer> positions = new IdentityHashMap<>(size);
+    for (int position = 0; position < size; position++) {
+      positions.put(components.get(position), position);
+    }
+    this.ids = new String[size];
+    this.ownStates = new byte[size];
+    this.derivedStates = new byte[size];
+    this.dependencyOffsets = new int[size + 1];
+    this.dependentOffsets = new int[size + 1];
+    this.checkCounts = new int[size * Severities.COUNT];
+    this.dependencyCounts = new int[size * Severities.COUNT];
+    this.scheduled = new boolean[size];
+    this.checkStates = new CheckStates(size);
+    this.componentIndex = new SymbolIndex(size);
+    int dependencyCount = 0;
+    int dependentCount = 0;
+    for (int position = 0; position < size; position++) {
+      Component component = components.get(position);
+      ids[position] = component.getId();
+      componentIndex.put(component.getSymbol(), position);
+      ownStates[position] = Severities.encode(component.getOwnState().value());
+      derivedStates[position] = Severities.encode(component.getDerivedState().value());
+      for (Map.Entry<String, StateValue> check : component.getCheckStates().entrySet()) {
+        byte state = Severities.encode(check.getValue());
+        checkStates.put(position, checkPosition(SymbolTable.intern(check.getKey())), state);
+        checkCounts[position * Severities.COUNT + state]++;
+      }
+      dependencyCount += count(component.getDependencies(), positions);
+      dependentCount += count(component.getDependents(), positions);
+      dependencyOffsets[position + 1] = dependencyCount;
+      dependentOffsets[position + 1] = dependentCount;
+    }
+    this.dependencies = new int[dependencyCount];
+    this.dependents = new int[dependentCount];
+    for (int position = 0; position < size; position++) {
+      Component component = components.get(position);
+      fill(dependencies, dependencyOffsets[position], component.getDependencies(), positions);
+      fill(dependents, dependentOffsets[position], component.getDependents(), positions);
+      for (int edge = dependencyOffsets[position]; edge < dependencyOffsets[position + 1]; edge++) {
+        dependencyCounts[position * Severities.COUNT + derivedStates[dependencies[edge]]]++;
+      }
+    }
+    this.ranks = ColumnarRanking.ranks(dependentOffsets, dependents);
+  }
+
+  public static ColumnarStackState from(StackState stackState) {
+    List<Component> components = new ArrayList<>(stackState.size());
+    Map<Component, Boolean> seen = new IdentityHashMap<>(stackState.size());
+    stackState.stream()
+        .filter(component -> seen.put(component, Boolean.TRUE) == null)
+        .forEach(components::add);
+    return new ColumnarStackState(components);
+  }
+
+  public StackState toStackState() {
+    CheckedState.Builder[] checkedStates = new CheckedState.Builder[ids.length];
+    checkStates.forEach((component, check, state) -> {
+      if (checkedStates[component] == null) {
+        checkedStates[component] = CheckedState.builder();
+      }
+      checkedStates[component].and(checkNames.get(check), Severities.decode(state));
+    });
+    List<Component> components = new ArrayList<>(ids.length);
+    for (int position = 0; position < ids.length; position++) {
+      components.add(Component.builder()
+          .id(ids[position])
+          .checkedState(checkedStates[position] == null ? CheckedState.dataless() : checkedStates[position].build())
+          .ownState(OwnState.of(Severities.decode(ownStates[position])))
+          .derivedState(DerivedState.of(Severities.decode(derivedStates[position])))
+          .dependencies(new HashSet<>())
+          .dependents(new HashSet<>())
+          .build());
+    }
+    for (int position = 0; position < ids.length; position++) {
+      for (int edge = dependencyOffsets[position]; edge < dependencyOffsets[position + 1]; edge++) {
+        components.get(position).addDependencyOn(components.get(dependencies[edge]));
+      }
+    }
+    return StackState.withComponents(components);
+  }
+
+  /**
+   * Applies the event to the component it names, if this stack state has it.
+   */
+  public void apply(Event event) {
+    int component = componentIndex.positionOf(event.getComponentSymbol());
+    if (component < 0) {
+      return;
+    }
+    int check = event.getCheckSymbol();
+    check = check != SymbolTable.UNKNOWN ? check : SymbolTable.intern(event.getCheckState());
+    record(component, checkPosition(check), Severities.encode(event.getState()));
+    updateDerivedState(component);
+    try {
+      scheduleDependentsOf(component);
+      drain();
+    } finally {
+      discardPending();
+    }
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  public StateValue ownStateOf(String componentId) {
+    return Severities.decode(ownStates[positionOf(componentId)]);
+  }
+
+  public StateValue derivedStateOf(String componentId) {
+    return Severities.decode(derivedStates[positionOf(componentId)]);
+  }
+
+  private void record(int component, int check, byte state) {
+    byte previous = checkStates.put(component, check, state);
+    int counts = component * Severities.COUNT;
+    if (previous != CheckStates.ABSENT) {
+      checkCounts[counts + previous]--;
+    }
+    checkCounts[counts + state]++;
+    ownStates[component] = Severities.highest(checkCounts, counts);
+  }
+
+  private boolean updateDerivedState(int component) {
+    byte oldState = derivedStates[component];
+    byte newState = calculateDerivedState(component);
+    if (newState == oldState) {
+      return false;
+    }
+    derivedStates[component] = newState;
+    for (int edge = dependentOffsets[component]; edge < dependentOffsets[component + 1]; edge++) {
+      int counts = dependents[edge] * Severities.COUNT;
+      dependencyCounts[counts + oldState]--;
+      dependencyCounts[counts + newState]++;
+    }
+    return true;
+  }
+
+  private byte calculateDerivedState(int component) {
+    byte ownState = ownStates[component] == Severities.CLEAR ? Severities.NO_DATA : ownStates[component];
+    byte dependenciesState = Severities.highest(dependencyCounts, component * Severities.COUNT);
+    if (dependenciesState < Severities.WARNING) {
+      dependenciesState = Severities.NO_DATA;
+    }
+    return (byte) Math.max(ownState, dependenciesState);
+  }
+
+  private void drain() {
+    while (!pending.isEmpty()) {
+      int component = pending.poll();
+      scheduled[component] = false;
+      if (updateDerivedState(component)) {
+        scheduleDependentsOf(component);
+      }
+    }
+  }
+
+  private void discardPending() {
+    while (!pending.isEmpty()) {
+      scheduled[pending.poll()] = false;
+    }
+  }
+
+  private void scheduleDependentsOf(int component) {
+    for (int edge = dependentOffsets[component]; edge < dependentOffsets[component + 1]; edge++) {
+      int dependent = dependents[edge];
+      boolean saturated = ownStates[dependent] == Severities.ALERT && derivedStates[dependent] == Severities.ALERT;
+      if (!saturated && !scheduled[dependent]) {
+        scheduled[dependent] = true;
+        pending.add(dependent, ranks[dependent]);
+      }
+    }
+  }
+
+  private int positionOf(String componentId) {
+    int position = componentIndex.positionOf(SymbolTable.find(componentId));
+    if (position < 0) {
+      throw new IllegalArgumentException("Component '" + componentId + "' is not part of the stack state");
+    }
+    return position;
+  }
+
+  private int checkPosition(int check) {
+    int position = checkIndex.positionOf(check);
+    if (position < 0) {
+      position = checkNames.size();
+      checkNames.add(SymbolTable.name(check));
+      checkIndex.put(check, position);
+    }
+    return position;
+  }
+
+  private static int count(Iterable<Component> components, Map<Component, Integer> positions) {
+    int count = 0;
+    for (Component component : components) {
+      if (positions.containsKey(component)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static void fill(int[] targets, int offset, Iterable<Component> components,
+      Map<Component, Integer> positions) {
+    for (Component component : components) {
+      Integer position = positions.get(component);
+      if (position != null) {
+        targets[offset++] = position;
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package stackstate.columnar;
+
+import java.util.stream.Stream;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+/**
+ * {@link stackstate.StateCalculator} for a {@link ColumnarStackState}.
+ */
+public class ColumnarStateCalculator {
+
+  public ColumnarStackState processEvents(ColumnarStackState initialState, EventChain eventChain) {
+    return processEvents(initialState, eventChain.stream());
+  }
+
+  public ColumnarStackState processEvents(ColumnarStackState initialState, Stream<Event> events) {
+    events
+        .sorted()
+        .forEach(initialState::apply);
+    return initialState;
+  }
+
+}
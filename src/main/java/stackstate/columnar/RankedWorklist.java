@@ -0,0 +1,73 @@
+package stackstate.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of component positions taken by rank, then in scheduling order, like the priority
+ * queue of the object engine but without boxing.
+ */
+class RankedWorklist {
+
+  private long[] keys = new long[64];
+  private int[] components = new int[64];
+  private int size;
+  private long clock;
+
+  void add(int component, int rank) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      components = Arrays.copyOf(components, size * 2);
+    }
+    long key = ((long) rank << 32) | (clock++ & 0xFFFFFFFFL);
+    int child = size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      keys[child] = keys[parent];
+      components[child] = components[parent];
+      child = parent;
+    }
+    keys[child] = key;
+    components[child] = component;
+  }
+
+  int poll() {
+    int head = components[0];
+    size--;
+    long key = keys[size];
+    int component = components[size];
+    int parent = 0;
+    while (true) {
+      int child = 2 * parent + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      keys[parent] = keys[child];
+      components[parent] = components[child];
+      parent = child;
+    }
+    keys[parent] = key;
+    components[parent] = component;
+    if (size == 0) {
+      clock = 0;
+    }
+    return head;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    size = 0;
+    clock = 0;
+  }
+}
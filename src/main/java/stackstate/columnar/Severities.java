@@ -0,0 +1,50 @@
+package stackstate.columnar;
+
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import stackstate.domain.enumeration.StateValue;
+
+/**
+ * Byte codes for state values, ordered by severity so that codes compare like the values do.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class Severities {
+
+  private static final StateValue[] BY_SEVERITY = Arrays.stream(StateValue.values())
+      .sorted(StateValue.COMPARATOR)
+      .toArray(StateValue[]::new);
+  private static final byte[] CODES = new byte[BY_SEVERITY.length];
+
+  static {
+    for (int code = 0; code < BY_SEVERITY.length; code++) {
+      CODES[BY_SEVERITY[code].ordinal()] = (byte) code;
+    }
+  }
+
+  static final int COUNT = BY_SEVERITY.length;
+  static final byte NO_DATA = encode(StateValue.NO_DATA);
+  static final byte CLEAR = encode(StateValue.CLEAR);
+  static final byte WARNING = encode(StateValue.WARNING);
+  static final byte ALERT = encode(StateValue.ALERT);
+
+  static byte encode(StateValue state) {
+    return CODES[state.ordinal()];
+  }
+
+  static StateValue decode(byte code) {
+    return BY_SEVERITY[code];
+  }
+
+  /**
+   * @return the highest code counted in the {@link #COUNT} counts starting at {@code offset}
+   */
+  static byte highest(int[] counts, int offset) {
+    for (int code = COUNT - 1; code > NO_DATA; code--) {
+      if (counts[offset + code] > 0) {
+        return (byte) code;
+      }
+    }
+    return NO_DATA;
+  }
+}
@@ -0,0 +1,66 @@
+package stackstate.columnar;
+
+import stackstate.domain.SymbolTable;
+
+/**
+ * Open addressing index from {@link SymbolTable} symbols to positions, without boxing either. The
+ * first position of a repeated symbol wins.
+ */
+class SymbolIndex {
+
+  private static final int FREE = 0;
+
+  private int[] symbols;
+  // position of the symbol in the slot plus one
+  private int[] slots;
+  private int size;
+
+  SymbolIndex(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 2) * 2 - 1);
+    this.symbols = new int[capacity];
+    this.slots = new int[capacity];
+  }
+
+  /**
+   * @return the position of the symbol, or -1 if it has none, as for {@link SymbolTable#UNKNOWN}
+   */
+  int positionOf(int symbol) {
+    return symbol == SymbolTable.UNKNOWN ? -1 : slots[slotOf(symbol)] - 1;
+  }
+
+  void put(int symbol, int position) {
+    int slot = slotOf(symbol);
+    if (slots[slot] != FREE) {
+      return;
+    }
+    symbols[slot] = symbol;
+    slots[slot] = position + 1;
+    if (2 * ++size > slots.length) {
+      grow();
+    }
+  }
+
+  private int slotOf(int symbol) {
+    int mask = slots.length - 1;
+    int hash = symbol * 0x9E3779B9;
+    int slot = (hash ^ hash >>> 16) & mask;
+    while (slots[slot] != FREE && symbols[slot] != symbol) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    int[] oldSymbols = symbols;
+    int[] oldSlots = slots;
+    symbols = new int[oldSymbols.length * 2];
+    slots = new int[oldSlots.length * 2];
+    for (int i = 0; i < oldSlots.length; i++) {
+      if (oldSlots[i] != FREE) {
+        int slot = slotOf(oldSymbols[i]);
+        symbols[slot] = oldSymbols[i];
+        slots[slot] = oldSlots[i];
+      }
+    }
+  }
+}
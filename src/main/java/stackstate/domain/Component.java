@@ -3,28 +3,61 @@ package stackstate.domain;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import stackstate.domain.enumeration.StateValue;
 import stackstate.domain.event.Event;
 import stackstate.domain.state.CheckedState;
 import stackstate.domain.state.DerivedState;
 import stackstate.domain.state.OwnState;
+import stackstate.domain.state.StateCounts;
 
-@ToString(exclude = {"dependents", "dependencies"})
-@EqualsAndHashCode(exclude = {"dependents", "dependencies"})
-@Builder
-@AllArgsConstructor
+@ToString(of = {"id", "checkedState", "ownState", "derivedState"}, doNotUseGetters = true)
+@EqualsAndHashCode(of = {"id", "checkedState", "ownState", "derivedState"}, doNotUseGetters = true)
 public class Component {
 
+  private static final AtomicLong DEPENDENCIES_ADDED = new AtomicLong();
+
   private String id;
+  private int symbol;
   private CheckedState checkedState;
   private OwnState ownState;
   private DerivedState derivedState;
   private Set<Component> dependents;
+  private Component[] dependentArray;
+  private int dependentCount;
   private Set<Component> dependencies;
+  private StateCounts dependencyStates;
+  private StateChangeListener listener = StateChangeListener.NONE;
+
+  private int rank;
+  private boolean acyclicDownstream;
+
+  /**
+   * The component takes ownership of the given checked state, which is updated in place by events.
+   * Dependents and dependencies are copied into sets of their own, which tell components apart by
+   * identity, as their equality changes with their states, and keep the order they were added in.
+   */
+  @Builder
+  public Component(String id, CheckedState checkedState, OwnState ownState, DerivedState derivedState,
+      Set<Component> dependents, Set<Component> dependencies) {
+    this.symbol = SymbolTable.intern(id);
+    this.id = SymbolTable.name(symbol);
+    this.checkedState = checkedState;
+    this.ownState = ownState;
+    this.derivedState = derivedState;
+    this.dependents = identitySetOf(dependents);
+    this.dependentArray = this.dependents.toArray(new Component[0]);
+    this.dependentCount = dependentArray.length;
+    this.dependencies = identitySetOf(dependencies);
+    this.dependencyStates = StateCounts.empty();
+    this.dependencies.forEach(dependency -> dependencyStates.add(dependency.derivedState.value()));
+    DEPENDENCIES_ADDED.addAndGet(this.dependencies.size());
+  }
 
   public static Component withId(String id) {
     return Component.withIdAndCheckedStates(id);
@@ -42,14 +75,26 @@ public class Component {
   }
 
   public void apply(Event event) {
-    checkedState = checkedState.updateGiven(event);
-    ownState = ownState.updateGiven(checkedState);
-    derivedState = derivedState.updateGiven(this);
-    dependents.forEach(Component::reCalculateDerivedState);
+    record(event);
+    updateDerivedState();
+    DerivedStatePropagator.local().propagateFrom(this);
+  }
+
+  /**
+   * Same as applying an event for the check with the given {@link SymbolTable} symbol, without
+   * needing the event itself.
+   */
+  public void apply(int check, StateValue state) {
+    record(check, state);
+    updateDerivedState();
+    DerivedStatePropagator.local().propagateFrom(this);
   }
 
   public void addDependencyOn(Component dependency) {
-    dependencies.add(dependency);
+    if (dependencies.add(dependency)) {
+      dependencyStates.add(dependency.derivedState.value());
+      DEPENDENCIES_ADDED.incrementAndGet();
+    }
     dependency.addDependent(this);
   }
 
@@ -57,26 +102,175 @@ public class Component {
     Arrays.stream(newDependencies).forEach(this::addDependencyOn);
   }
 
-  protected void reCalculateDerivedState() {
+  /**
+   * @return how many dependencies components of the whole process were given so far, which only
+   * grows, so a topology built from them has not changed while it stays the same
+   */
+  public static long dependenciesAdded() {
+    return DEPENDENCIES_ADDED.get();
+  }
+
+  /**
+   * Replaces the listener told about state changes of this component, {@link StateChangeListener#NONE}
+   * by default.
+   */
+  public void onStateChange(StateChangeListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Puts back states saved earlier, e.g. by a checkpoint, keeping the dependency counts of the
+   * dependents in line. Nothing is recalculated or propagated and the listener is not told:
+   * restoring every component saved at the same point leaves a consistent stack state.
+   */
+  public void restore(CheckedState checkedState, OwnState ownState, DerivedState derivedState) {
+    DerivedState oldDerivedState = this.derivedState;
+    this.checkedState = checkedState;
+    this.ownState = ownState;
+    this.derivedState = derivedState;
+    moveDependencyStates(oldDerivedState.value(), derivedState.value());
+  }
+
+  /**
+   * @return whether the derived state changed, in which case the dependents need to be recalculated too
+   */
+  protected boolean reCalculateDerivedState() {
+    return updateDerivedState();
+  }
+
+  /**
+   * @return whether the derived state can no longer change, whatever happens to the dependencies
+   */
+  boolean isSaturated() {
+    return ownState.value() == StateValue.ALERT && derivedState.value() == StateValue.ALERT;
+  }
+
+  /**
+   * @return the topological rank given by {@link TopologicalRanking}, above the ranks of the
+   * dependencies
+   */
+  int rank() {
+    return rank;
+  }
+
+  /**
+   * @return whether no dependency cycle can be reached through the dependents, as found by {@link
+   * TopologicalRanking}
+   */
+  boolean isAcyclicDownstream() {
+    return acyclicDownstream;
+  }
+
+  void rank(int rank, boolean acyclicDownstream) {
+    this.rank = rank;
+    this.acyclicDownstream = acyclicDownstream;
+  }
+
+  /**
+   * @return the highest derived state among the dependencies, kept up to date as they change
+   */
+  public StateValue getHighestDependencyState() {
+    return dependencyStates.highest();
+  }
+
+  /**
+   * Updates the checked and own states only, leaving the derived states to a later propagation.
+   */
+  void record(Event event) {
+    listener.beforeStateChange(this);
+    checkedState.apply(event);
+    ownState = ownState.updateGiven(checkedState);
+  }
+
+  private void record(int check, StateValue state) {
+    listener.beforeStateChange(this);
+    checkedState.apply(check, state);
+    ownState = ownState.updateGiven(checkedState);
+  }
+
+  /**
+   * The dependents without the unmodifiable view, for the hot loops of this package.
+   */
+  Set<Component> rawDependents() {
+    return dependents;
+  }
+
+  /**
+   * The dependents can also be walked by index, without allocating an iterator.
+   */
+  int dependentCount() {
+    return dependentCount;
+  }
+
+  Component dependent(int index) {
+    return dependentArray[index];
+  }
+
+  private boolean updateDerivedState() {
     DerivedState oldDerivedState = derivedState;
-    derivedState = derivedState.updateGiven(this);
-    if (!derivedState.equals(oldDerivedState)) {
-      dependents.forEach(Component::reCalculateDerivedState);
+    DerivedState newDerivedState = derivedState.updateGiven(this);
+    if (newDerivedState.equals(oldDerivedState)) {
+      return false;
+    }
+    listener.beforeStateChange(this);
+    derivedState = newDerivedState;
+    moveDependencyStates(oldDerivedState.value(), newDerivedState.value());
+    return true;
+  }
+
+  private void moveDependencyStates(StateValue from, StateValue to) {
+    for (int index = 0; index < dependentCount; index++) {
+      dependentArray[index].dependencyStates.move(from, to);
     }
   }
 
   private void addDependent(Component dependent) {
-    dependents.add(dependent);
+    if (dependents.add(dependent)) {
+      if (dependentCount == dependentArray.length) {
+        dependentArray = Arrays.copyOf(dependentArray, Math.max(4, dependentCount * 2));
+      }
+      dependentArray[dependentCount++] = dependent;
+    }
+  }
+
+  private static Set<Component> identitySetOf(Set<Component> components) {
+    Set<Component> identitySet = new LinkedIdentitySet<>();
+    if (components != null) {
+      identitySet.addAll(components);
+    }
+    return identitySet;
   }
 
   public String getId() {
     return id;
   }
 
+  /**
+   * @return the {@link SymbolTable} symbol of the id
+   */
+  public int getSymbol() {
+    return symbol;
+  }
+
   public CheckedState getCheckedState() {
     return checkedState.clone();
   }
 
+  /**
+   * @return the check states, read without copying the checked state first
+   */
+  public Map<String, StateValue> getCheckStates() {
+    return checkedState.getValues();
+  }
+
+  public StateValue getOwnStateValue() {
+    return ownState.value();
+  }
+
+  public StateValue getDerivedStateValue() {
+    return derivedState.value();
+  }
+
   public OwnState getOwnState() {
     return ownState.clone();
   }
@@ -0,0 +1,86 @@
+package stackstate.domain;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pushes a derived state change through the dependents of a component with an explicit worklist,
+ * so the depth of the graph is not limited by the thread stack.
+ *
+ * <p>Pending components are taken in topological rank order (see {@link TopologicalRanking}), so in
+ * an acyclic graph a component is only recalculated once all its affected dependencies are settled,
+ * and at most once per propagation. Components of a dependency cycle share a rank and are simply
+ * recalculated again whenever one of their dependencies changes, until the cycle stabilizes. Ranks
+ * only decide the order: a stale or missing rank costs extra recalculations, never a wrong state.
+ * Dependents at alert for their own reasons are not scheduled at all, they cannot change.
+ */
+class DerivedStatePropagator {
+
+  private static final ThreadLocal<DerivedStatePropagator> LOCAL =
+      ThreadLocal.withInitial(DerivedStatePropagator::new);
+
+  private final RankedQueue pending = new RankedQueue();
+  private final Set<Component> scheduled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  static DerivedStatePropagator local() {
+    return LOCAL.get();
+  }
+
+  void propagateFrom(Component origin) {
+    try {
+      scheduleDependentsOf(origin);
+      drain();
+    } finally {
+      discardPending();
+    }
+  }
+
+  /**
+   * Propagates from components whose own state changed but whose derived state was not recalculated
+   * yet. Each origin is recalculated along with the rest, in topological order.
+   */
+  void propagateFrom(List<Component> origins) {
+    try {
+      for (Component origin : origins) {
+        schedule(origin);
+        scheduleDependentsOf(origin);
+      }
+      drain();
+    } finally {
+      discardPending();
+    }
+  }
+
+  private void drain() {
+    while (!pending.isEmpty()) {
+      Component component = pending.poll();
+      scheduled.remove(component);
+      if (component.reCalculateDerivedState()) {
+        scheduleDependentsOf(component);
+      }
+    }
+  }
+
+  private void discardPending() {
+    while (!pending.isEmpty()) {
+      scheduled.remove(pending.poll());
+    }
+  }
+
+  private void scheduleDependentsOf(Component component) {
+    for (int index = 0; index < component.dependentCount(); index++) {
+      Component dependent = component.dependent(index);
+      if (!dependent.isSaturated()) {
+        schedule(dependent);
+      }
+    }
+  }
+
+  private void schedule(Component component) {
+    if (scheduled.add(component)) {
+      pending.add(component);
+    }
+  }
+}
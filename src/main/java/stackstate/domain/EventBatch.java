@@ -0,0 +1,53 @@
+package stackstate.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import stackstate.domain.event.Event;
+
+/**
+ * Applies the checked and own state updates of several events first, and recalculates derived
+ * states once, over all the affected components, when the batch is flushed.
+ *
+ * <p>The outcome of a dependency cycle can depend on the order of its updates, so events on
+ * components from which a cycle is reachable flush the batch and are applied one by one, keeping
+ * the final state equal to applying every event in sequence.
+ */
+public class EventBatch {
+
+  private final List<Component> origins = new ArrayList<>();
+  private final Set<Component> batched = Collections.newSetFromMap(new IdentityHashMap<>());
+  private int size;
+
+  public void apply(Component component, Event event) {
+    if (!component.isAcyclicDownstream()) {
+      flush();
+      component.apply(event);
+      return;
+    }
+    component.record(event);
+    if (batched.add(component)) {
+      origins.add(component);
+    }
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void flush() {
+    if (origins.isEmpty()) {
+      return;
+    }
+    try {
+      DerivedStatePropagator.local().propagateFrom(origins);
+    } finally {
+      batched.clear();
+      origins.clear();
+      size = 0;
+    }
+  }
+}
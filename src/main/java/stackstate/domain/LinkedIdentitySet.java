@@ -0,0 +1,43 @@
+package stackstate.domain;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set telling its elements apart by identity instead of equality, iterated in insertion order.
+ * Elements cannot be removed.
+ */
+final class LinkedIdentitySet<E> extends AbstractSet<E> {
+
+  private final Map<E, Boolean> members = new IdentityHashMap<>();
+  private final List<E> elements = new ArrayList<>();
+
+  @Override
+  public boolean add(E element) {
+    if (members.put(element, Boolean.TRUE) != null) {
+      return false;
+    }
+    elements.add(element);
+    return true;
+  }
+
+  @Override
+  public boolean contains(Object element) {
+    return members.containsKey(element);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Collections.unmodifiableList(elements).iterator();
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+}
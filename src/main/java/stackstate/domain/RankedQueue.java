@@ -0,0 +1,70 @@
+package stackstate.domain;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of components taken by rank, then in scheduling order. Ranks are read once, when a
+ * component is added, so the heap needs nothing of the component but the reference.
+ */
+class RankedQueue {
+
+  private long[] keys = new long[64];
+  private Component[] components = new Component[64];
+  private int size;
+  private long clock;
+
+  void add(Component component) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      components = Arrays.copyOf(components, size * 2);
+    }
+    long key = ((long) component.rank() << 32) | (clock++ & 0xFFFFFFFFL);
+    int child = size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      keys[child] = keys[parent];
+      components[child] = components[parent];
+      child = parent;
+    }
+    keys[child] = key;
+    components[child] = component;
+  }
+
+  Component poll() {
+    Component head = components[0];
+    size--;
+    long key = keys[size];
+    Component component = components[size];
+    components[size] = null;
+    if (size == 0) {
+      clock = 0;
+      return head;
+    }
+    int parent = 0;
+    while (true) {
+      int child = 2 * parent + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      keys[parent] = keys[child];
+      components[parent] = components[child];
+      parent = child;
+    }
+    keys[parent] = key;
+    components[parent] = component;
+    return head;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+}
@@ -0,0 +1,22 @@
+package stackstate.domain;
+
+/**
+ * Told about a component right before its checked, own or derived state changes, on the thread that
+ * applies the event, so the previous states can still be read. An event that sets a check to the
+ * state it already had may be reported too.
+ */
+@FunctionalInterface
+public interface StateChangeListener {
+
+  StateChangeListener NONE = component -> {
+  };
+
+  void beforeStateChange(Component component);
+
+  default StateChangeListener andThen(StateChangeListener next) {
+    return component -> {
+      beforeStateChange(component);
+      next.beforeStateChange(component);
+    };
+  }
+}
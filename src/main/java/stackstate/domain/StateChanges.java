@@ -0,0 +1,72 @@
+package stackstate.domain;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import stackstate.domain.state.CheckedState;
+import stackstate.domain.state.DerivedState;
+import stackstate.domain.state.OwnState;
+
+/**
+ * Keeps the states every component had before its first change since the last {@link #reset()}, so
+ * that only the changed components need to be written. Costs nothing for untouched components.
+ *
+ * <p>Not thread safe: track stack states processed by one thread at a time.
+ */
+public class StateChanges implements StateChangeListener {
+
+  private final Map<Component, ComponentChange> byComponent = new IdentityHashMap<>();
+  private final List<ComponentChange> inOrder = new ArrayList<>();
+
+  @Override
+  public void beforeStateChange(Component component) {
+    if (!byComponent.containsKey(component)) {
+      ComponentChange change = new ComponentChange(component, component.getCheckedState(),
+          component.getOwnState(), component.getDerivedState());
+      byComponent.put(component, change);
+      inOrder.add(change);
+    }
+  }
+
+  /**
+   * @return the components whose states differ from before their first change, in the order they
+   * first changed
+   */
+  public List<ComponentChange> changes() {
+    return inOrder.stream()
+        .filter(ComponentChange::isChanged)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Starts over from the current states.
+   */
+  public void reset() {
+    byComponent.clear();
+    inOrder.clear();
+  }
+
+  @Getter
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  public static class ComponentChange {
+
+    private final Component component;
+    private final CheckedState previousCheckedState;
+    private final OwnState previousOwnState;
+    private final DerivedState previousDerivedState;
+
+    /**
+     * @return whether any state differs from the previous one, changes may cancel each other out
+     */
+    public boolean isChanged() {
+      return !component.getOwnState().equals(previousOwnState)
+          || !component.getDerivedState().equals(previousDerivedState)
+          || !component.getCheckedState().equals(previousCheckedState);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package stackstate.domain;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the component ids and check names of the process to dense ints, so the hot paths key
+ * arrays by int instead of hashing and comparing strings, and every event naming a component
+ * shares the one instance of its id. Symbols are handed out from 1 up, {@link #NONE} stands for a
+ * missing name. Names are never forgotten, so only the ids of components as they are built and the
+ * checks applied to them are interned: events only {@link #find} their names. The table holds at most
+ * {@link #CAPACITY} names, so a feed of ever new check names fails instead of taking all the memory.
+ *
+ * <p>Safe to use from any thread: looking up a known name takes no lock.
+ */
+public final class SymbolTable {
+
+  public static final int NONE = 0;
+  public static final int UNKNOWN = -1;
+  public static final int CAPACITY = 1 << 24;
+
+  private static final int INITIAL_NAMES = 1024;
+
+  private static final Map<String, Integer> symbols = new ConcurrentHashMap<>();
+  private static volatile String[] names = new String[INITIAL_NAMES];
+  private static int size = 1;
+  private static int capacity = CAPACITY;
+  private static volatile int version;
+
+  private SymbolTable() {
+  }
+
+  /**
+   * @return the symbol of the name, given out now if the name is new
+   */
+  public static int intern(String name) {
+    if (name == null) {
+      return NONE;
+    }
+    Integer symbol = symbols.get(name);
+    return symbol != null ? symbol : add(name);
+  }
+
+  /**
+   * @return the symbol of the name, {@link #UNKNOWN} if it was never interned
+   */
+  public static int find(String name) {
+    if (name == null) {
+      return NONE;
+    }
+    Integer symbol = symbols.get(name);
+    return symbol != null ? symbol : UNKNOWN;
+  }
+
+  /**
+   * @return the interned instance of the name of the symbol
+   */
+  public static String name(int symbol) {
+    return symbol == NONE ? null : names[symbol];
+  }
+
+  /**
+   * @return a number that changes whenever a name is interned, so a name found {@link #UNKNOWN} need
+   * not be looked up again while it stays the same
+   */
+  public static int version() {
+    return version;
+  }
+
+  /**
+   * Forgets every name, for tests to start from an empty table: the symbols given out before, and
+   * the components, events and checked states holding them, are not to be used anymore.
+   */
+  public static void reset() {
+    reset(CAPACITY);
+  }
+
+  static synchronized void reset(int capacity) {
+    symbols.clear();
+    names = new String[INITIAL_NAMES];
+    size = 1;
+    SymbolTable.capacity = capacity;
+    version++;
+  }
+
+  private static synchronized int add(String name) {
+    Integer symbol = symbols.get(name);
+    if (symbol != null) {
+      return symbol;
+    }
+    if (size > capacity) {
+      throw new IllegalStateException("Cannot intern " + name + ", the symbol table is full at "
+          + capacity + " names");
+    }
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+    }
+    names[size] = name;
+    symbols.put(name, size);
+    version++;
+    return size++;
+  }
+}
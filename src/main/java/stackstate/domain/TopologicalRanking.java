@@ -0,0 +1,162 @@
+package stackstate.domain;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks components so that every component ranks above the components it depends on. Components
+ * of the same dependency cycle (strongly connected component) share a rank. Components from which
+ * no dependency cycle can be reached through their dependents are flagged as acyclic downstream.
+ *
+ * <p>Uses an iterative version of Tarjan's algorithm over the dependency edges, so long dependency
+ * chains are not limited by the thread stack. The ranks are kept by the components, for the
+ * propagation to read without a lookup.
+ */
+public class TopologicalRanking {
+
+  private static final int UNVISITED = -1;
+
+  private final List<Component> components;
+  private final Map<Component, Integer> positions;
+  private final int[] index;
+  private final int[] lowLink;
+  private final boolean[] onStack;
+  private final int[] cycleOf;
+  private final int[] closingOrder;
+  private final boolean[] selfDependent;
+  private final int[] cycleStack;
+  private final int[] callStack;
+  private final Iterator<Component>[] pendingDependents;
+
+  private int visited;
+  private int cycles;
+  private int closed;
+  private int cycleStackSize;
+  private int callStackSize;
+
+  private TopologicalRanking(List<Component> components) {
+    int size = components.size();
+    this.components = components;
+    this.index = new int[size];
+    this.lowLink = new int[size];
+    this.onStack = new boolean[size];
+    this.cycleOf = new int[size];
+    this.closingOrder = new int[size];
+    this.selfDependent = new boolean[size];
+    this.cycleStack = new int[size];
+    this.callStack = new int[size];
+    this.pendingDependents = newIterators(size);
+    this.positions = new IdentityHashMap<>(size);
+    for (int position = 0; position < size; position++) {
+      positions.putIfAbsent(components.get(position), position);
+    }
+    Arrays.fill(index, UNVISITED);
+  }
+
+  public static void assign(List<Component> components) {
+    new TopologicalRanking(components).assign();
+  }
+
+  /**
+   * Ranks a component added on top of already ranked ones.
+   */
+  public static void assign(Component component) {
+    int rank = 0;
+    for (Component dependency : component.getDependencies()) {
+      rank = Math.max(rank, dependency.rank() + 1);
+    }
+    boolean acyclicDownstream = true;
+    for (Component dependent : component.getDependents()) {
+      acyclicDownstream &= dependent != component && dependent.isAcyclicDownstream();
+    }
+    component.rank(rank, acyclicDownstream);
+  }
+
+  private void assign() {
+    for (int position = 0; position < components.size(); position++) {
+      if (index[position] == UNVISITED && positions.get(components.get(position)) == position) {
+        visitFrom(position);
+      }
+    }
+    int[] cycleSizes = new int[cycles];
+    boolean[] feedsCycle = new boolean[cycles];
+    for (int order = 0; order < closed; order++) {
+      cycleSizes[cycleOf[closingOrder[order]]]++;
+    }
+    // Tarjan closes a cycle only after every cycle downstream of it, so dependents are settled first
+    for (int order = 0; order < closed; order++) {
+      int position = closingOrder[order];
+      int cycle = cycleOf[position];
+      feedsCycle[cycle] |= cycleSizes[cycle] > 1 || selfDependent[position];
+      for (Component dependent : components.get(position).rawDependents()) {
+        Integer dependentPosition = positions.get(dependent);
+        feedsCycle[cycle] |= dependentPosition != null && feedsCycle[cycleOf[dependentPosition]];
+      }
+    }
+    for (int order = 0; order < closed; order++) {
+      Component component = components.get(closingOrder[order]);
+      int cycle = cycleOf[closingOrder[order]];
+      component.rank(cycles - 1 - cycle, !feedsCycle[cycle]);
+    }
+  }
+
+  private void visitFrom(int root) {
+    enter(root);
+    while (callStackSize > 0) {
+      int current = callStack[callStackSize - 1];
+      Iterator<Component> dependents = pendingDependents[current];
+      if (dependents.hasNext()) {
+        Integer position = positions.get(dependents.next());
+        if (position == null) {
+          continue;
+        }
+        int dependent = position;
+        selfDependent[current] |= dependent == current;
+        if (index[dependent] == UNVISITED) {
+          enter(dependent);
+        } else if (onStack[dependent]) {
+          lowLink[current] = Math.min(lowLink[current], index[dependent]);
+        }
+      } else {
+        leave(current);
+      }
+    }
+  }
+
+  private void enter(int position) {
+    index[position] = visited;
+    lowLink[position] = visited;
+    visited++;
+    onStack[position] = true;
+    cycleStack[cycleStackSize++] = position;
+    callStack[callStackSize++] = position;
+    pendingDependents[position] = components.get(position).rawDependents().iterator();
+  }
+
+  private void leave(int position) {
+    callStackSize--;
+    pendingDependents[position] = null;
+    if (callStackSize > 0) {
+      int caller = callStack[callStackSize - 1];
+      lowLink[caller] = Math.min(lowLink[caller], lowLink[position]);
+    }
+    if (lowLink[position] == index[position]) {
+      int member;
+      do {
+        member = cycleStack[--cycleStackSize];
+        onStack[member] = false;
+        cycleOf[member] = cycles;
+        closingOrder[closed++] = member;
+      } while (member != position);
+      cycles++;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Iterator<Component>[] newIterators(int size) {
+    return (Iterator<Component>[]) new Iterator<?>[size];
+  }
+}
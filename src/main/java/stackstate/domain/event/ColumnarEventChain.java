@@ -0,0 +1,264 @@
+package stackstate.domain.event;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+import stackstate.domain.SymbolTable;
+import stackstate.domain.enumeration.StateValue;
+
+/**
+ * An event chain kept in primitive columns: timestamps, {@link SymbolTable} symbols of the
+ * components and checks, and state ordinals. It is still an {@link EventChain}, whose events are
+ * made on the fly when read, but the columns can also be walked by index, and sorted, without
+ * making any event at all.
+ *
+ * <p>As with {@link Event}, names the symbol table does not hold are kept out of it: the chain codes
+ * them itself, with negative codes, and looks them up again when they are read.
+ */
+public class ColumnarEventChain extends EventChain {
+
+  private static final StateValue[] STATES = StateValue.values();
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final Columns columns;
+  private boolean ordered;
+
+  private ColumnarEventChain(Columns columns, boolean ordered) {
+    super(columns);
+    this.columns = columns;
+    this.ordered = ordered;
+  }
+
+  public static ColumnarEventChain of(Iterable<Event> events) {
+    Columns columns = new Columns(events instanceof Collection ? ((Collection<?>) events).size() : INITIAL_CAPACITY);
+    events.forEach(columns::append);
+    return new ColumnarEventChain(columns, false);
+  }
+
+  public static ColumnarEventChain of(Stream<Event> events) {
+    Columns columns = new Columns(INITIAL_CAPACITY);
+    events.forEachOrdered(columns::append);
+    return new ColumnarEventChain(columns, false);
+  }
+
+  /**
+   * Merges chains already in timestamp order into one, events with the same timestamp coming in the
+   * order of the chains they are from.
+   */
+  public static ColumnarEventChain merge(List<ColumnarEventChain> sortedChains) {
+    int[] positions = new int[sortedChains.size()];
+    PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, sortedChains.size()), Comparator
+        .<Integer>comparingLong(chain -> sortedChains.get(chain).timestampAt(positions[chain]))
+        .thenComparingInt(chain -> chain));
+    int size = 0;
+    for (int chain = 0; chain < sortedChains.size(); chain++) {
+      size += sortedChains.get(chain).size();
+      if (sortedChains.get(chain).size() > 0) {
+        heads.add(chain);
+      }
+    }
+    Columns merged = new Columns(size);
+    while (!heads.isEmpty()) {
+      int chain = heads.poll();
+      Columns columns = sortedChains.get(chain).columns;
+      int position = positions[chain]++;
+      merged.append(columns.timestamps[position], merged.codeFrom(columns, columns.components[position]),
+          merged.codeFrom(columns, columns.checks[position]), columns.states[position]);
+      if (positions[chain] < columns.size) {
+        heads.add(chain);
+      }
+    }
+    return new ColumnarEventChain(merged, true);
+  }
+
+  public long timestampAt(int index) {
+    return columns.timestamps[index];
+  }
+
+  /**
+   * @return the symbol of the component, {@link SymbolTable#UNKNOWN} if it is not interned
+   */
+  public int componentAt(int index) {
+    int component = columns.components[index];
+    if (component < 0) {
+      component = SymbolTable.find(columns.name(component));
+      if (component != SymbolTable.UNKNOWN) {
+        columns.components[index] = component;
+      }
+    }
+    return component;
+  }
+
+  /**
+   * @return the symbol of the check, interned now if it is new, so only to be asked for an event
+   * applied to a component
+   */
+  public int checkAt(int index) {
+    int check = columns.checks[index];
+    if (check < 0) {
+      check = SymbolTable.intern(columns.name(check));
+      columns.checks[index] = check;
+    }
+    return check;
+  }
+
+  public StateValue stateAt(int index) {
+    return STATES[columns.states[index]];
+  }
+
+  /**
+   * @return true if the events are known to be in timestamp order, as they are once merged or sorted,
+   * so {@link #sorted()} takes no time
+   */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /**
+   * @return the events in timestamp order, events with the same timestamp staying in the order they
+   * were in, as with {@link Stream#sorted()}: this chain itself if it is known to be in order already
+   */
+  public ColumnarEventChain sorted() {
+    if (ordered) {
+      return this;
+    }
+    int size = columns.size;
+    int[] order = new int[size];
+    boolean inOrder = true;
+    for (int index = 0; index < size; index++) {
+      order[index] = index;
+      inOrder &= index == 0 || columns.timestamps[index - 1] <= columns.timestamps[index];
+    }
+    if (inOrder) {
+      ordered = true;
+      return this;
+    }
+    mergeSort(order, new int[size], 0, size);
+    Columns sorted = new Columns(size, columns);
+    for (int index : order) {
+      sorted.append(columns.timestamps[index], columns.components[index], columns.checks[index],
+          columns.states[index]);
+    }
+    return new ColumnarEventChain(sorted, true);
+  }
+
+  private void mergeSort(int[] order, int[] buffer, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    mergeSort(order, buffer, from, middle);
+    mergeSort(order, buffer, middle, to);
+    if (columns.timestamps[order[middle - 1]] <= columns.timestamps[order[middle]]) {
+      return;
+    }
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int index = from; index < to; index++) {
+      if (right >= to || (left < middle && columns.timestamps[buffer[left]] <= columns.timestamps[buffer[right]])) {
+        order[index] = buffer[left++];
+      } else {
+        order[index] = buffer[right++];
+      }
+    }
+  }
+
+  private static class Columns extends AbstractList<Event> implements RandomAccess {
+
+    private long[] timestamps;
+    private int[] components;
+    private int[] checks;
+    private byte[] states;
+    private int size;
+    private final List<String> unknownNames;
+    private final Map<String, Integer> unknownCodes;
+
+    private Columns(int capacity) {
+      this(capacity, new ArrayList<>(), new HashMap<>());
+    }
+
+    private Columns(int capacity, Columns sharingCodes) {
+      this(capacity, sharingCodes.unknownNames, sharingCodes.unknownCodes);
+    }
+
+    private Columns(int capacity, List<String> unknownNames, Map<String, Integer> unknownCodes) {
+      timestamps = new long[capacity];
+      components = new int[capacity];
+      checks = new int[capacity];
+      states = new byte[capacity];
+      this.unknownNames = unknownNames;
+      this.unknownCodes = unknownCodes;
+    }
+
+    private void append(Event event) {
+      int component = event.getComponentSymbol();
+      int check = event.getCheckSymbol();
+      append(event.getTimestamp(), component != SymbolTable.UNKNOWN ? component : unknownCodeOf(event.getComponent()),
+          check != SymbolTable.UNKNOWN ? check : unknownCodeOf(event.getCheckState()),
+          (byte) event.getState().ordinal());
+    }
+
+    /**
+     * @return the code in these columns of a code of other columns
+     */
+    private int codeFrom(Columns other, int code) {
+      if (code >= 0) {
+        return code;
+      }
+      String name = other.name(code);
+      int symbol = SymbolTable.find(name);
+      return symbol != SymbolTable.UNKNOWN ? symbol : unknownCodeOf(name);
+    }
+
+    /**
+     * @return a code from -2 down, as -1 is {@link SymbolTable#UNKNOWN}
+     */
+    private int unknownCodeOf(String name) {
+      return unknownCodes.computeIfAbsent(name, newName -> {
+        unknownNames.add(newName);
+        return -1 - unknownNames.size();
+      });
+    }
+
+    private String name(int code) {
+      return code >= 0 ? SymbolTable.name(code) : unknownNames.get(-2 - code);
+    }
+
+    private void append(long timestamp, int component, int check, byte state) {
+      if (size == timestamps.length) {
+        int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        components = Arrays.copyOf(components, capacity);
+        checks = Arrays.copyOf(checks, capacity);
+        states = Arrays.copyOf(states, capacity);
+      }
+      timestamps[size] = timestamp;
+      components[size] = component;
+      checks[size] = check;
+      states[size] = state;
+      size++;
+    }
+
+    @Override
+    public Event get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of " + size + " events");
+      }
+      return Event.of(timestamps[index], name(components[index]), name(checks[index]), STATES[states[index]]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
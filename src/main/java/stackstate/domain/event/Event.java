@@ -1,24 +1,49 @@
 package stackstate.domain.event;
 
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import stackstate.domain.SymbolTable;
 import stackstate.domain.enumeration.StateValue;
 
-@ToString
+/**
+ * Names already in the {@link SymbolTable}, such as the ids of the components of a stack state, are
+ * shared with it, so events hold the one instance of each and are applied through their symbols.
+ * Names it does not hold are left out of it: an event for a component of no stack state must not
+ * grow the table of a process that never ends. Their symbols are looked up again when asked for
+ * only if names were interned since, as told by {@link SymbolTable#version()}.
+ */
+@ToString(of = {"timestamp", "component", "checkState", "state"})
 @Getter
-@Builder
-@EqualsAndHashCode
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode(of = {"timestamp", "component", "checkState", "state"})
 public class Event implements Comparable<Event> {
 
   private final long timestamp;
   private final String component;
   private final String checkState;
   private final StateValue state;
+  @Getter(AccessLevel.NONE)
+  private int componentSymbol;
+  @Getter(AccessLevel.NONE)
+  private int checkSymbol;
+  @Getter(AccessLevel.NONE)
+  private int componentUnknownAt;
+  @Getter(AccessLevel.NONE)
+  private int checkUnknownAt;
+
+  @Builder
+  private Event(long timestamp, String component, String checkState, StateValue state) {
+    this.timestamp = timestamp;
+    this.componentUnknownAt = SymbolTable.version();
+    this.checkUnknownAt = componentUnknownAt;
+    this.componentSymbol = SymbolTable.find(component);
+    this.checkSymbol = SymbolTable.find(checkState);
+    this.component = componentSymbol == SymbolTable.UNKNOWN ? component : SymbolTable.name(componentSymbol);
+    this.checkState = checkSymbol == SymbolTable.UNKNOWN ? checkState : SymbolTable.name(checkSymbol);
+    this.state = state;
+  }
 
   public static Event of(long timestamp, String component, String checkState, StateValue state) {
     return Event.builder()
@@ -33,6 +58,48 @@ public class Event implements Comparable<Event> {
     return Event.of(1, component, checkState, state);
   }
 
+  /**
+   * @return the {@link SymbolTable} symbol of the component, {@link SymbolTable#UNKNOWN} if it is not
+   * interned
+   */
+  public int getComponentSymbol() {
+    int symbol = componentSymbol;
+    if (symbol != SymbolTable.UNKNOWN) {
+      return symbol;
+    }
+    int version = SymbolTable.version();
+    if (componentUnknownAt != version) {
+      symbol = SymbolTable.find(component);
+      if (symbol == SymbolTable.UNKNOWN) {
+        componentUnknownAt = version;
+      } else {
+        componentSymbol = symbol;
+      }
+    }
+    return symbol;
+  }
+
+  /**
+   * @return the {@link SymbolTable} symbol of the check, {@link SymbolTable#UNKNOWN} if it is not
+   * interned
+   */
+  public int getCheckSymbol() {
+    int symbol = checkSymbol;
+    if (symbol != SymbolTable.UNKNOWN) {
+      return symbol;
+    }
+    int version = SymbolTable.version();
+    if (checkUnknownAt != version) {
+      symbol = SymbolTable.find(checkState);
+      if (symbol == SymbolTable.UNKNOWN) {
+        checkUnknownAt = version;
+      } else {
+        checkSymbol = symbol;
+      }
+    }
+    return symbol;
+  }
+
   @Override
   public int compareTo(Event other) {
     return Long.compare(timestamp, other.timestamp);
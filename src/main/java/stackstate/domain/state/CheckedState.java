@@ -1,26 +1,56 @@
 package stackstate.domain.state;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import stackstate.domain.SymbolTable;
 import stackstate.domain.enumeration.StateValue;
 import stackstate.domain.event.Event;
 
-@ToString
-@EqualsAndHashCode
+/**
+ * Check states of a component, along with how many checks are at each state value, so the highest
+ * state is found without going through the checks. Checks are kept by {@link SymbolTable} symbol in
+ * the order they were added, with an open addressing table from symbol to position, so an event
+ * finds its check in constant time without hashing its name.
+ *
+ * <p>{@link #updateGiven(Event)} leaves this instance untouched, while {@link #apply(Event)} updates
+ * it in place for its single owner, the component it belongs to.
+ */
 public class CheckedState implements UpdatableState<Event, CheckedState>, Cloneable {
 
-  private final Map<String, StateValue> values;
+  private static final int NO_POSITION = -1;
 
-  private CheckedState(Map<String, StateValue> values) {
-    this.values = Collections.unmodifiableMap(values);
+  private int[] checks;
+  private StateValue[] states;
+  private int size;
+  // position of the check in the slot plus one, zero for an empty slot
+  private int[] slots;
+  private final StateCounts counts;
+
+  private CheckedState(int[] checks, StateValue[] states) {
+    this.checks = checks;
+    this.states = states;
+    this.size = checks.length;
+    this.counts = StateCounts.empty();
+    Arrays.stream(states).forEach(counts::add);
+    rehash(slotCountFor(size));
+  }
+
+  private CheckedState(int[] checks, StateValue[] states, int size, int[] slots, StateCounts counts) {
+    this.checks = checks;
+    this.states = states;
+    this.size = size;
+    this.slots = slots;
+    this.counts = counts;
   }
 
   public static CheckedState dataless() {
-    return new CheckedState(new HashMap<>());
+    return new CheckedState(new int[0], new StateValue[0]);
   }
 
   public static CheckedState dataless(String... checkedStates) {
@@ -44,34 +74,192 @@ public class CheckedState implements UpdatableState<Event, CheckedState>, Clonea
 
   @Override
   public CheckedState updateGiven(Event event) {
-    Map<String, StateValue> newValues = new HashMap<>(values);
-    newValues.put(event.getCheckState(), event.getState());
-    return new CheckedState(newValues);
+    CheckedState newCheckedState = clone();
+    newCheckedState.apply(event);
+    return newCheckedState;
+  }
+
+  /**
+   * Updates this checked state in place, in constant time for a check it already tracks.
+   */
+  public void apply(Event event) {
+    int check = event.getCheckSymbol();
+    apply(check != SymbolTable.UNKNOWN ? check : SymbolTable.intern(event.getCheckState()), event.getState());
+  }
+
+  /**
+   * @param check the {@link SymbolTable} symbol of the check
+   */
+  public void apply(int check, StateValue state) {
+    int slot = slotOf(check);
+    int position = slots[slot] - 1;
+    if (position != NO_POSITION) {
+      counts.move(states[position], state);
+      states[position] = state;
+    } else {
+      append(slot, check, state);
+      counts.add(state);
+    }
   }
 
   public boolean isTracking(String checkState) {
-    return values.containsKey(checkState);
+    return positionOf(checkState) != NO_POSITION;
   }
 
   public StateValue valueOf(String checkedState) {
-    return values.getOrDefault(checkedState, StateValue.NO_DATA);
+    int position = positionOf(checkedState);
+    return position != NO_POSITION ? states[position] : StateValue.NO_DATA;
   }
 
   public StateValue getHighestState() {
-    return values.values()
-        .stream()
-        .sorted(StateValue.REVERSED_COMPARATOR)
-        .findFirst()
-        .orElse(StateValue.NO_DATA);
+    return counts.highest();
   }
 
+  /**
+   * @return an unmodifiable view of the check states, which follows the updates of this instance
+   */
   public Map<String, StateValue> getValues() {
-    return Collections.unmodifiableMap(values);
+    return new Values();
   }
 
   @Override
   public CheckedState clone() {
-    return new CheckedState(Collections.unmodifiableMap(values));
+    return new CheckedState(checks.clone(), states.clone(), size, slots.clone(), counts.clone());
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof CheckedState)) {
+      return false;
+    }
+    CheckedState that = (CheckedState) other;
+    if (size != that.size) {
+      return false;
+    }
+    for (int position = 0; position < size; position++) {
+      int thatPosition = that.slots[that.slotOf(checks[position])] - 1;
+      if (thatPosition == NO_POSITION || that.states[thatPosition] != states[position]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int position = 0; position < size; position++) {
+      hashCode += checks[position] * 31 + states[position].ordinal();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "CheckedState(values=" + getValues() + ")";
+  }
+
+  private int positionOf(String checkState) {
+    int symbol = SymbolTable.find(checkState);
+    return symbol == SymbolTable.UNKNOWN ? NO_POSITION : slots[slotOf(symbol)] - 1;
+  }
+
+  /**
+   * @return the slot holding the check, or the empty slot it would go into
+   */
+  private int slotOf(int check) {
+    int mask = slots.length - 1;
+    int hash = check * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (slots[slot] != 0 && checks[slots[slot] - 1] != check) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void append(int slot, int check, StateValue state) {
+    if (size == checks.length) {
+      int capacity = Math.max(2, size * 2);
+      checks = Arrays.copyOf(checks, capacity);
+      states = Arrays.copyOf(states, capacity);
+    }
+    checks[size] = check;
+    states[size] = state;
+    slots[slot] = ++size;
+    if (slots.length < slotCountFor(size)) {
+      rehash(slotCountFor(size));
+    }
+  }
+
+  private void rehash(int slotCount) {
+    slots = new int[slotCount];
+    for (int position = 0; position < size; position++) {
+      slots[slotOf(checks[position])] = position + 1;
+    }
+  }
+
+  /**
+   * @return a power of two at least twice the number of checks, so probing stays short
+   */
+  private static int slotCountFor(int size) {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1);
+  }
+
+  private class Values extends AbstractMap<String, StateValue> {
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && isTracking((String) key);
+    }
+
+    @Override
+    public StateValue get(Object key) {
+      int position = key instanceof String ? positionOf((String) key) : NO_POSITION;
+      return position != NO_POSITION ? states[position] : null;
+    }
+
+    @Override
+    public Set<Entry<String, StateValue>> entrySet() {
+      return new AbstractSet<Entry<String, StateValue>>() {
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public Iterator<Entry<String, StateValue>> iterator() {
+          return new Iterator<Entry<String, StateValue>>() {
+
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+              return position < size;
+            }
+
+            @Override
+            public Entry<String, StateValue> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, StateValue> entry =
+                  new SimpleImmutableEntry<>(SymbolTable.name(checks[position]), states[position]);
+              position++;
+              return entry;
+            }
+          };
+        }
+      };
+    }
   }
 
   public static class Builder {
@@ -91,7 +279,12 @@ public class CheckedState implements UpdatableState<Event, CheckedState>, Clonea
     }
 
     public CheckedState build() {
-      return new CheckedState(values);
+      int[] checks = values.keySet().stream().mapToInt(SymbolTable::intern).toArray();
+      StateValue[] states = new StateValue[checks.length];
+      for (int index = 0; index < checks.length; index++) {
+        states[index] = values.get(SymbolTable.name(checks[index]));
+      }
+      return new CheckedState(checks, states);
     }
 
     private void add(String checkedState, StateValue state) {
@@ -1,5 +1,6 @@
 package stackstate.domain.state;
 
+import java.util.Arrays;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -7,15 +8,22 @@ import lombok.ToString;
 import stackstate.domain.Component;
 import stackstate.domain.enumeration.StateValue;
 
+/**
+ * Immutable, with one instance per state value shared by every component.
+ */
 @ToString
 @EqualsAndHashCode
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class DerivedState implements UpdatableState<Component, DerivedState>, Cloneable {
+public final class DerivedState implements UpdatableState<Component, DerivedState>, Cloneable {
+
+  private static final DerivedState[] FLYWEIGHTS = Arrays.stream(StateValue.values())
+      .map(DerivedState::new)
+      .toArray(DerivedState[]::new);
 
   private final StateValue state;
 
   public static DerivedState of(StateValue state) {
-    return new DerivedState(state);
+    return FLYWEIGHTS[state.ordinal()];
   }
 
   public static DerivedState dataless() {
@@ -34,25 +42,23 @@ public class DerivedState implements UpdatableState<Component, DerivedState>, Cl
   }
 
   private StateValue obtainDependenciesStateValue(Component component) {
-    return component.getDependencies().stream()
-        .map(Component::getDerivedState)
-        .map(DerivedState::value)
-        .filter(StateValue::warningOrHigher)
-        .sorted(StateValue.REVERSED_COMPARATOR)
-        .findFirst()
-        .orElse(StateValue.NO_DATA);
+    StateValue highestDependencyState = component.getHighestDependencyState();
+    return highestDependencyState.warningOrHigher() ? highestDependencyState : StateValue.NO_DATA;
   }
 
   private StateValue obtainOwnState(Component component) {
-    StateValue ownState = component.getOwnState().value();
+    StateValue ownState = component.getOwnStateValue();
     if (ownState.equals(StateValue.CLEAR)) {
       ownState = StateValue.NO_DATA;
     }
     return ownState;
   }
 
+  /**
+   * @return this very instance, as it never changes
+   */
   @Override
   public DerivedState clone() {
-    return DerivedState.of(state);
+    return this;
   }
 }
@@ -1,20 +1,28 @@
 package stackstate.domain.state;
 
+import java.util.Arrays;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import stackstate.domain.enumeration.StateValue;
 
+/**
+ * Immutable, with one instance per state value shared by every component.
+ */
 @ToString
 @EqualsAndHashCode
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class OwnState implements UpdatableState<CheckedState, OwnState>, Cloneable {
+public final class OwnState implements UpdatableState<CheckedState, OwnState>, Cloneable {
+
+  private static final OwnState[] FLYWEIGHTS = Arrays.stream(StateValue.values())
+      .map(OwnState::new)
+      .toArray(OwnState[]::new);
 
   private final StateValue state;
 
   public static OwnState of(StateValue state) {
-    return new OwnState(state);
+    return FLYWEIGHTS[state.ordinal()];
   }
 
   public static OwnState dataless() {
@@ -30,8 +38,11 @@ public class OwnState implements UpdatableState<CheckedState, OwnState>, Cloneab
     return state;
   }
 
+  /**
+   * @return this very instance, as it never changes
+   */
   @Override
   public OwnState clone() {
-    return OwnState.of(state);
+    return this;
   }
 }
@@ -0,0 +1,54 @@
+package stackstate.domain.state;
+
+import java.util.Arrays;
+import stackstate.domain.enumeration.StateValue;
+
+/**
+ * How many items are at each state value, so the highest state value is known in constant time.
+ */
+public class StateCounts implements Cloneable {
+
+  private static final StateValue[] FROM_HIGHEST = Arrays.stream(StateValue.values())
+      .sorted(StateValue.REVERSED_COMPARATOR)
+      .toArray(StateValue[]::new);
+
+  private final int[] counts;
+
+  private StateCounts(int[] counts) {
+    this.counts = counts;
+  }
+
+  public static StateCounts empty() {
+    return new StateCounts(new int[StateValue.values().length]);
+  }
+
+  public void add(StateValue state) {
+    counts[state.ordinal()]++;
+  }
+
+  public void remove(StateValue state) {
+    counts[state.ordinal()]--;
+  }
+
+  public void move(StateValue from, StateValue to) {
+    remove(from);
+    add(to);
+  }
+
+  /**
+   * @return the highest state value with at least one item, or no data when empty
+   */
+  public StateValue highest() {
+    for (StateValue state : FROM_HIGHEST) {
+      if (counts[state.ordinal()] > 0) {
+        return state;
+      }
+    }
+    return StateValue.NO_DATA;
+  }
+
+  @Override
+  public StateCounts clone() {
+    return new StateCounts(counts.clone());
+  }
+}
@@ -0,0 +1,282 @@
+package stackstate.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.io.dto.state.ComponentDto;
+import stackstate.io.dto.state.GraphDto;
+import stackstate.mvcc.ComponentVersion;
+import stackstate.mvcc.StackStateVersion;
+import stackstate.mvcc.VersionedStackState;
+
+/**
+ * Read-only HTTP API over the latest published version of a {@link VersionedStackState}, bound to
+ * the loopback interface:
+ * <ul>
+ * <li>{@code GET /components/{id}}: one component, in the format of the output documents</li>
+ * <li>{@code GET /components?derived_state=alert&limit=100}: the components, optionally only the ones
+ * at the given derived state and at most {@code limit} of them</li>
+ * <li>{@code GET /components/{id}/neighborhood?depth=2}: the component and every component reachable
+ * from it through at most {@code depth} dependencies or dependents, 1 by default</li>
+ * </ul>
+ * Component ids are url-encoded path segments. Every response carries the version it was read
+ * from in the {@code X-Stack-State-Version} header.
+ *
+ * <p>Requests only ever read immutable versions, so they take no lock and never hold up the thread
+ * applying events. Each request runs on its own virtual thread when the runtime has them, and on a
+ * cached thread pool otherwise.
+ */
+public class QueryServer implements AutoCloseable {
+
+  private static final String COMPONENTS = "/components";
+  private static final String NEIGHBORHOOD = "neighborhood";
+  private static final String VERSION_HEADER = "X-Stack-State-Version";
+  private static final String UTF_8 = "UTF-8";
+
+  private final VersionedStackState stackState;
+  private final ObjectMapper objectMapper;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private QueryServer(VersionedStackState stackState, ObjectMapper objectMapper, int port) throws IOException {
+    this.stackState = stackState;
+    this.objectMapper = objectMapper;
+    this.executor = newExecutor();
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext(COMPONENTS, this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /**
+   * @param port 0 for any free port, see {@link #port()}
+   */
+  public static QueryServer start(VersionedStackState stackState, ObjectMapper objectMapper, int port) {
+    try {
+      return new QueryServer(stackState, objectMapper, port);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot start the query server: " + e.getMessage());
+    }
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    StackStateVersion version = stackState.current();
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        throw new QueryException(405, "Only GET is supported");
+      }
+      Object body = answer(version, segments(exchange.getRequestURI().getRawPath()),
+          parameters(exchange.getRequestURI().getRawQuery()));
+      respond(exchange, version, 200, body);
+    } catch (QueryException e) {
+      respond(exchange, version, e.status, Collections.singletonMap("error", e.getMessage()));
+    } catch (RuntimeException | IOException e) {
+      if (exchange.getResponseCode() == -1) {
+        respond(exchange, version, 500, Collections.singletonMap("error", "Cannot answer: " + e.getMessage()));
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private Object answer(StackStateVersion version, List<String> segments, Map<String, String> parameters) {
+    if (segments.isEmpty()) {
+      return list(version, parameters);
+    }
+    ComponentVersion component = version.getComponent(segments.get(0))
+        .orElseThrow(() -> new QueryException(404, "Component '" + segments.get(0) + "' is not part of the stack state"));
+    if (segments.size() == 1) {
+      return toDto(component);
+    }
+    if (segments.size() == 2 && segments.get(1).equals(NEIGHBORHOOD)) {
+      return neighborhood(version, component, positive(parameters, "depth").orElse(1));
+    }
+    throw new QueryException(404, "Unknown resource");
+  }
+
+  private GraphDto list(StackStateVersion version, Map<String, String> parameters) {
+    Optional<StateValue> derivedState = Optional.ofNullable(parameters.get("derived_state")).map(QueryServer::state);
+    int limit = positive(parameters, "limit").orElse(Integer.MAX_VALUE);
+    return GraphDto.builder()
+        .components(version.stream()
+            .filter(component -> !derivedState.isPresent() || component.getDerivedState() == derivedState.get())
+            .limit(limit)
+            .map(QueryServer::toDto)
+            .collect(Collectors.toList()))
+        .build();
+  }
+
+  private static GraphDto neighborhood(StackStateVersion version, ComponentVersion origin, int depth) {
+    Set<String> seen = new HashSet<>();
+    seen.add(origin.getId());
+    Queue<ComponentVersion> frontier = new ArrayDeque<>();
+    frontier.add(origin);
+    List<ComponentDto> components = new ArrayList<>();
+    for (int distance = 0; distance <= depth && !frontier.isEmpty(); distance++) {
+      Queue<ComponentVersion> next = new ArrayDeque<>();
+      for (ComponentVersion component : frontier) {
+        components.add(toDto(component));
+        if (distance < depth) {
+          visit(version, component.getDependencies(), seen, next);
+          visit(version, component.getDependents(), seen, next);
+        }
+      }
+      frontier = next;
+    }
+    return GraphDto.builder().components(components).build();
+  }
+
+  private static void visit(StackStateVersion version, List<String> ids, Set<String> seen,
+      Queue<ComponentVersion> next) {
+    for (String id : ids) {
+      if (seen.add(id)) {
+        version.getComponent(id).ifPresent(next::add);
+      }
+    }
+  }
+
+  private void respond(HttpExchange exchange, StackStateVersion version, int status, Object body)
+      throws IOException {
+    byte[] bytes = objectMapper.writeValueAsBytes(body);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.getResponseHeaders().set(VERSION_HEADER, String.valueOf(version.version()));
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static ComponentDto toDto(ComponentVersion component) {
+    Map<String, String> checkStates = new HashMap<>();
+    component.getCheckStates().forEach((check, state) -> checkStates.put(check, toStringValue(state)));
+    return ComponentDto.builder()
+        .id(component.getId())
+        .ownState(toStringValue(component.getOwnState()))
+        .derivedState(toStringValue(component.getDerivedState()))
+        .checkStates(checkStates)
+        .dependsOn(component.getDependencies().isEmpty() ? null : component.getDependencies())
+        .dependencyOf(component.getDependents().isEmpty() ? null : component.getDependents())
+        .build();
+  }
+
+  private static List<String> segments(String rawPath) {
+    String rest = rawPath.substring(COMPONENTS.length());
+    if (!rest.isEmpty() && !rest.startsWith("/")) {
+      throw new QueryException(404, "Unknown resource");
+    }
+    List<String> segments = new ArrayList<>();
+    for (String segment : rest.split("/")) {
+      if (!segment.isEmpty()) {
+        segments.add(decode(segment));
+      }
+    }
+    return segments;
+  }
+
+  private static Map<String, String> parameters(String rawQuery) {
+    Map<String, String> parameters = new HashMap<>();
+    if (rawQuery == null) {
+      return parameters;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      int separator = parameter.indexOf('=');
+      if (separator > 0) {
+        parameters.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+      }
+    }
+    return parameters;
+  }
+
+  private static Optional<Integer> positive(Map<String, String> parameters, String name) {
+    String value = parameters.get(name);
+    if (value == null) {
+      return Optional.empty();
+    }
+    try {
+      int number = Integer.parseInt(value);
+      if (number > 0) {
+        return Optional.of(number);
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new QueryException(400, "Parameter " + name + " needs a positive number");
+  }
+
+  private static StateValue state(String value) {
+    try {
+      return StateValue.valueOf(value.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new QueryException(400, "State '" + value + "' is not a valid state");
+    }
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, UTF_8);
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      throw new QueryException(400, "Malformed url: " + value);
+    }
+  }
+
+  private static String toStringValue(StateValue state) {
+    return state.toString().toLowerCase();
+  }
+
+  /**
+   * Virtual threads only exist from Java 21 on, while this code targets Java 9.
+   */
+  private static ExecutorService newExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "query-server");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  private static class QueryException extends RuntimeException {
+
+    private static final long serialVersionUID = 6405112398472103615L;
+
+    private final int status;
+
+    QueryException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package stackstate.ingest;
+
+import java.util.function.Consumer;
+import lombok.Builder;
+import stackstate.StackState;
+import stackstate.domain.event.Event;
+
+/**
+ * Lets any number of threads, e.g. one per upstream agent, feed events to a single stack state.
+ * Producers {@link #publish(Event)} into an {@link EventRingBuffer}, and one applier thread drains it
+ * in batches and applies the events, in the order they were published, with no locks on the apply
+ * path. Components are only ever touched by the applier thread.
+ */
+public class EventIngestor implements AutoCloseable {
+
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+  public static final int DEFAULT_MAX_BATCH = 1 << 10;
+
+  private final EventRingBuffer ringBuffer;
+  private final Consumer<Event> applier;
+  private final Runnable afterBatch;
+  private final int maxBatch;
+  private final Thread applierThread;
+  private final Runnable checkApplying = this::checkApplying;
+  private volatile boolean closing;
+  private volatile boolean stopped;
+  private volatile RuntimeException failure;
+
+  /**
+   * Only the stack state is required: events are applied straight to it, with a ring buffer of
+   * {@link #DEFAULT_CAPACITY} slots, batches of up to {@link #DEFAULT_MAX_BATCH} events and the
+   * {@link WaitStrategy#YIELD} strategy by default. {@code afterBatch} runs on the applier thread
+   * after each batch, e.g. to publish a new version of the stack state.
+   */
+  @Builder
+  public EventIngestor(StackState stackState, Consumer<Event> applier, Runnable afterBatch, Integer capacity,
+      Integer maxBatch, WaitStrategy waitStrategy) {
+    this.ringBuffer = new EventRingBuffer(capacity != null ? capacity : DEFAULT_CAPACITY,
+        waitStrategy != null ? waitStrategy : WaitStrategy.YIELD);
+    this.applier = applier != null ? applier : event -> stackState.getComponent(event.getComponentSymbol())
+        .ifPresent(component -> component.apply(event));
+    this.afterBatch = afterBatch != null ? afterBatch : () -> {
+    };
+    this.maxBatch = maxBatch != null ? maxBatch : DEFAULT_MAX_BATCH;
+    if (this.maxBatch < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.applierThread = new Thread(this::applyUntilClosed, "event-applier");
+    this.applierThread.setDaemon(true);
+    this.applierThread.start();
+  }
+
+  /**
+   * Queues the event for the applier, waiting while the ring buffer is full. Safe from any thread.
+   *
+   * @throws IllegalStateException when the ingestor is closed or stopped after a failure, including
+   * while waiting for room
+   */
+  public void publish(Event event) {
+    if (closing || failure != null) {
+      throw stoppedException();
+    }
+    ringBuffer.publish(event, checkApplying);
+  }
+
+  /**
+   * @return how many events were applied so far
+   */
+  public long appliedCount() {
+    return ringBuffer.drainedCount();
+  }
+
+  /**
+   * Applies every event published so far and stops the applier thread. Producers must be done
+   * publishing.
+   *
+   * @throws IllegalStateException when applying an event failed
+   */
+  @Override
+  public void close() {
+    closing = true;
+    try {
+      applierThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw new IllegalStateException("Applying events failed: " + failure.getMessage(), failure);
+    }
+  }
+
+  private void applyUntilClosed() {
+    WaitStrategy waitStrategy = ringBuffer.waitStrategy();
+    try {
+      while (true) {
+        if (ringBuffer.drain(applier, maxBatch) > 0) {
+          afterBatch.run();
+        } else if (closing && ringBuffer.isDrained()) {
+          return;
+        } else {
+          waitStrategy.idle();
+        }
+      }
+    } catch (RuntimeException e) {
+      failure = e;
+    } finally {
+      stopped = true;
+    }
+  }
+
+  /**
+   * Makes a producer waiting for room give up once the applier stopped, since nothing will make room
+   * any more.
+   */
+  private void checkApplying() {
+    if (stopped) {
+      throw stoppedException();
+    }
+  }
+
+  private IllegalStateException stoppedException() {
+    return new IllegalStateException("Ingestor is " + (failure != null ? "stopped after a failure" : "closed"));
+  }
+}
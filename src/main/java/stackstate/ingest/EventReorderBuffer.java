@@ -0,0 +1,85 @@
+package stackstate.ingest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import stackstate.domain.event.Event;
+import stackstate.io.exception.IllegalEventConfigurationException;
+
+/**
+ * Puts a never ending stream of slightly out of order events back in timestamp order. Events are
+ * held in timestamp order until the watermark, the highest timestamp seen minus the allowed
+ * lateness, passes them, and are then released downstream, e.g. to be applied.
+ *
+ * <p>An event is released at most {@code lateness} timestamp units after it could have been, and,
+ * timestamps being unique, at most {@code lateness + 1} events are ever held. An event that arrives
+ * once a later one was released, or that repeats the timestamp of another, breaks the uniqueness and
+ * order of the stream and is rejected.
+ *
+ * <p>Used from one thread at a time, like the downstream it feeds.
+ */
+public class EventReorderBuffer {
+
+  private final long lateness;
+  private final Consumer<Event> downstream;
+  private final TreeMap<Long, Event> pending = new TreeMap<>();
+  private long highestTimestamp = Long.MIN_VALUE;
+  private long releasedTimestamp = Long.MIN_VALUE;
+  private boolean released;
+
+  private EventReorderBuffer(long lateness, Consumer<Event> downstream) {
+    if (lateness < 0) {
+      throw new IllegalArgumentException("Lateness must not be negative");
+    }
+    this.lateness = lateness;
+    this.downstream = downstream;
+  }
+
+  public static EventReorderBuffer withLateness(long lateness, Consumer<Event> downstream) {
+    return new EventReorderBuffer(lateness, downstream);
+  }
+
+  /**
+   * Holds the event, then releases every event the watermark passed.
+   */
+  public void offer(Event event) {
+    long timestamp = event.getTimestamp();
+    if (released && timestamp <= releasedTimestamp) {
+      throw new IllegalEventConfigurationException("Event at " + timestamp
+          + " arrived after events up to " + releasedTimestamp + " were applied");
+    }
+    if (pending.putIfAbsent(timestamp, event) != null) {
+      throw new IllegalEventConfigurationException("Timestamp number must be unique across the event chain");
+    }
+    highestTimestamp = Math.max(highestTimestamp, timestamp);
+    releaseUpTo(watermark());
+  }
+
+  /**
+   * Releases every event held, e.g. once the stream ends.
+   */
+  public void flush() {
+    releaseUpTo(Long.MAX_VALUE);
+  }
+
+  /**
+   * @return the timestamp up to which events are released
+   */
+  public long watermark() {
+    return highestTimestamp < Long.MIN_VALUE + lateness ? Long.MIN_VALUE : highestTimestamp - lateness;
+  }
+
+  public int size() {
+    return pending.size();
+  }
+
+  private void releaseUpTo(long watermark) {
+    Map.Entry<Long, Event> next;
+    while ((next = pending.firstEntry()) != null && next.getKey() <= watermark) {
+      pending.pollFirstEntry();
+      releasedTimestamp = next.getKey();
+      released = true;
+      downstream.accept(next.getValue());
+    }
+  }
+}
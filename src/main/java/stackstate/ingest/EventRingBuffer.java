@@ -0,0 +1,114 @@
+package stackstate.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import stackstate.domain.event.Event;
+
+/**
+ * Bounded multi-producer, single-consumer queue of events over a preallocated array of slots.
+ *
+ * <p>Producers claim a sequence number with a single atomic increment, wait for its slot to be free
+ * if the consumer is a whole lap behind, store the event and mark the slot published with an ordered
+ * write of the sequence number. The consumer takes every contiguous published slot in one go. No
+ * locks are taken and nothing is allocated per event.
+ */
+public class EventRingBuffer {
+
+  private final Event[] slots;
+  private final AtomicLongArray published;
+  private final int mask;
+  private final WaitStrategy waitStrategy;
+  private final AtomicLong claimed = new AtomicLong();
+  private final AtomicLong consumed = new AtomicLong();
+
+  /**
+   * @param capacity rounded up to a power of two
+   */
+  public EventRingBuffer(int capacity, WaitStrategy waitStrategy) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Ring buffer capacity must be between 1 and 2^30");
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.slots = new Event[size];
+    this.published = new AtomicLongArray(size);
+    for (int slot = 0; slot < size; slot++) {
+      published.set(slot, -1);
+    }
+    this.mask = size - 1;
+    this.waitStrategy = waitStrategy;
+  }
+
+  public int capacity() {
+    return slots.length;
+  }
+
+  /**
+   * Adds the event, waiting with the wait strategy while the buffer is full. Safe from any number of
+   * threads.
+   *
+   * @return the sequence number of the event
+   */
+  public long publish(Event event) {
+    return publish(event, () -> {
+    });
+  }
+
+  /**
+   * Same as {@link #publish(Event)}, running {@code whileFull} before each wait for a free slot. It
+   * may throw to give up waiting once nothing drains the buffer any more, which leaves the claimed
+   * slot unpublished for good.
+   */
+  public long publish(Event event, Runnable whileFull) {
+    long sequence = claimed.getAndIncrement();
+    long wrapPoint = sequence - slots.length;
+    while (wrapPoint >= consumed.get()) {
+      whileFull.run();
+      waitStrategy.idle();
+    }
+    int slot = (int) sequence & mask;
+    slots[slot] = event;
+    published.lazySet(slot, sequence);
+    return sequence;
+  }
+
+  /**
+   * Hands every event published in sequence since the previous drain, up to {@code maxBatch} of
+   * them, to the consumer. Only one thread may drain.
+   *
+   * @return how many events were handed over, 0 when none was published
+   */
+  public int drain(Consumer<Event> consumer, int maxBatch) {
+    long first = consumed.get();
+    long last = first - 1;
+    while (last - first + 1 < maxBatch && published.get((int) (last + 1) & mask) == last + 1) {
+      last++;
+    }
+    for (long sequence = first; sequence <= last; sequence++) {
+      int slot = (int) sequence & mask;
+      Event event = slots[slot];
+      slots[slot] = null;
+      consumer.accept(event);
+    }
+    consumed.lazySet(last + 1);
+    return (int) (last - first + 1);
+  }
+
+  /**
+   * @return whether every event claimed so far has been drained
+   */
+  public boolean isDrained() {
+    return consumed.get() == claimed.get();
+  }
+
+  /**
+   * @return how many events were drained so far
+   */
+  public long drainedCount() {
+    return consumed.get();
+  }
+
+  WaitStrategy waitStrategy() {
+    return waitStrategy;
+  }
+}
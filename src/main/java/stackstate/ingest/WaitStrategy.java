@@ -0,0 +1,44 @@
+package stackstate.ingest;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a thread of the {@link EventRingBuffer} does while it waits: the consumer for events to be
+ * published, a producer for a free slot.
+ */
+public enum WaitStrategy {
+
+  /**
+   * Lowest latency, burns a core per waiting thread.
+   */
+  BUSY_SPIN {
+    @Override
+    void idle() {
+      Thread.onSpinWait();
+    }
+  },
+
+  /**
+   * Gives the core to other runnable threads, still busy when nothing else runs.
+   */
+  YIELD {
+    @Override
+    void idle() {
+      Thread.yield();
+    }
+  },
+
+  /**
+   * Sleeps for a short while, for mostly idle streams where latency matters less than CPU.
+   */
+  PARK {
+    @Override
+    void idle() {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+  };
+
+  private static final long PARK_NANOS = 50_000;
+
+  abstract void idle();
+}
@@ -0,0 +1,34 @@
+package stackstate.io.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+
+/**
+ * Binds the stack state and event DTOs to json, with the parsers and generators of its factory:
+ * through an object mapper ({@link ObjectMapperDtoCodec}), or field by field ({@link DtoJsonCodec})
+ * to start without one.
+ */
+public interface DtoCodec {
+
+  JsonFactory getFactory();
+
+  /**
+   * @return true if documents are to be indented, as with
+   * {@link com.fasterxml.jackson.databind.SerializationFeature#INDENT_OUTPUT}
+   */
+  boolean isIndentOutput();
+
+  /**
+   * @return the {@link stackstate.io.dto.state.StackStateDto}, {@link stackstate.io.dto.state.GraphDto},
+   * {@link stackstate.io.dto.state.ComponentDto}, {@link stackstate.io.dto.event.StackEventDto} or
+   * {@link stackstate.io.dto.event.EventDto} the parser is at
+   */
+  <T> T readValue(JsonParser parser, Class<T> type) throws IOException;
+
+  /**
+   * Writes one of the DTOs {@link #readValue} reads.
+   */
+  void writeValue(JsonGenerator generator, Object value) throws IOException;
+}
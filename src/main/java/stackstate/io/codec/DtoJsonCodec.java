@@ -0,0 +1,414 @@
+package stackstate.io.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.dto.event.StackEventDto;
+import stackstate.io.dto.state.ComponentDto;
+import stackstate.io.dto.state.GraphDto;
+import stackstate.io.dto.state.StackStateDto;
+
+/**
+ * Reads and writes the stack state and event DTOs token by token, the same json an object mapper
+ * with {@link com.fasterxml.jackson.databind.PropertyNamingStrategy#SNAKE_CASE} reads and writes,
+ * but field by field as written out below: nothing is introspected, so there is no object mapper
+ * to build and no class to scan before the first document is read.
+ *
+ * <p>Unrecognized fields and values of the wrong shape fail with a {@link JsonMappingException},
+ * as they do with the object mapper.
+ */
+public final class DtoJsonCodec implements DtoCodec {
+
+  private static final String GRAPH = "graph";
+  private static final String COMPONENTS = "components";
+  private static final String ID = "id";
+  private static final String OWN_STATE = "own_state";
+  private static final String DERIVED_STATE = "derived_state";
+  private static final String CHECK_STATES = "check_states";
+  private static final String DEPENDS_ON = "depends_on";
+  private static final String DEPENDENCY_OF = "dependency_of";
+  private static final String EVENTS = "events";
+  private static final String TIMESTAMP = "timestamp";
+  private static final String COMPONENT = "component";
+  private static final String CHECK_STATE = "check_state";
+  private static final String STATE = "state";
+
+  private final JsonFactory factory = new JsonFactory();
+  private final boolean indentOutput;
+
+  private DtoJsonCodec(boolean indentOutput) {
+    this.indentOutput = indentOutput;
+  }
+
+  public static DtoJsonCodec compact() {
+    return new DtoJsonCodec(false);
+  }
+
+  /**
+   * @return a codec whose documents are indented, as with
+   * {@link com.fasterxml.jackson.databind.SerializationFeature#INDENT_OUTPUT}
+   */
+  public static DtoJsonCodec indented() {
+    return new DtoJsonCodec(true);
+  }
+
+  @Override
+  public boolean isIndentOutput() {
+    return indentOutput;
+  }
+
+  @Override
+  public JsonFactory getFactory() {
+    return factory;
+  }
+
+  @Override
+  public <T> T readValue(JsonParser parser, Class<T> type) throws IOException {
+    if (parser.currentToken() == null && parser.nextToken() == null) {
+      throw JsonMappingException.from(parser, "No content to map due to end-of-input");
+    }
+    if (type == StackStateDto.class) {
+      return type.cast(readStackState(parser));
+    } else if (type == GraphDto.class) {
+      return type.cast(readGraph(parser));
+    } else if (type == ComponentDto.class) {
+      return type.cast(readComponent(parser));
+    } else if (type == StackEventDto.class) {
+      return type.cast(readStackEvents(parser));
+    } else if (type == EventDto.class) {
+      return type.cast(readEvent(parser));
+    }
+    throw new IllegalArgumentException("No json codec for " + type.getName());
+  }
+
+  @Override
+  public void writeValue(JsonGenerator generator, Object value) throws IOException {
+    if (indentOutput && generator.getPrettyPrinter() == null) {
+      generator.setPrettyPrinter(new DefaultPrettyPrinter());
+    }
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof StackStateDto) {
+      writeStackState(generator, (StackStateDto) value);
+    } else if (value instanceof GraphDto) {
+      writeGraph(generator, (GraphDto) value);
+    } else if (value instanceof ComponentDto) {
+      writeComponent(generator, (ComponentDto) value);
+    } else if (value instanceof StackEventDto) {
+      writeStackEvents(generator, (StackEventDto) value);
+    } else if (value instanceof EventDto) {
+      writeEvent(generator, (EventDto) value);
+    } else {
+      throw new IllegalArgumentException("No json codec for " + value.getClass().getName());
+    }
+  }
+
+  private static StackStateDto readStackState(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    StackStateDto stackState = new StackStateDto();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      if (GRAPH.equals(field)) {
+        stackState.setGraph(readGraph(parser));
+      } else {
+        throw unrecognized(parser, field, StackStateDto.class);
+      }
+    }
+    return stackState;
+  }
+
+  private static GraphDto readGraph(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    GraphDto graph = new GraphDto();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      if (COMPONENTS.equals(field)) {
+        graph.setComponents(readComponents(parser));
+      } else {
+        throw unrecognized(parser, field, GraphDto.class);
+      }
+    }
+    return graph;
+  }
+
+  private static List<ComponentDto> readComponents(JsonParser parser) throws IOException {
+    if (isNullArray(parser)) {
+      return null;
+    }
+    List<ComponentDto> components = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      components.add(readComponent(parser));
+    }
+    return components;
+  }
+
+  private static ComponentDto readComponent(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    ComponentDto component = new ComponentDto();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case ID:
+          component.setId(readString(parser));
+          break;
+        case OWN_STATE:
+          component.setOwnState(readString(parser));
+          break;
+        case DERIVED_STATE:
+          component.setDerivedState(readString(parser));
+          break;
+        case CHECK_STATES:
+          component.setCheckStates(readStringMap(parser));
+          break;
+        case DEPENDS_ON:
+          component.setDependsOn(readStrings(parser));
+          break;
+        case DEPENDENCY_OF:
+          component.setDependencyOf(readStrings(parser));
+          break;
+        default:
+          throw unrecognized(parser, field, ComponentDto.class);
+      }
+    }
+    return component;
+  }
+
+  private static StackEventDto readStackEvents(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    StackEventDto stackEvents = new StackEventDto();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      if (EVENTS.equals(field)) {
+        stackEvents.setEvents(readEvents(parser));
+      } else {
+        throw unrecognized(parser, field, StackEventDto.class);
+      }
+    }
+    return stackEvents;
+  }
+
+  private static List<EventDto> readEvents(JsonParser parser) throws IOException {
+    if (isNullArray(parser)) {
+      return null;
+    }
+    List<EventDto> events = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      events.add(readEvent(parser));
+    }
+    return events;
+  }
+
+  private static EventDto readEvent(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    EventDto event = new EventDto();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case TIMESTAMP:
+          event.setTimestamp(readString(parser));
+          break;
+        case COMPONENT:
+          event.setComponent(readString(parser));
+          break;
+        case CHECK_STATE:
+          event.setCheckState(readString(parser));
+          break;
+        case STATE:
+          event.setState(readString(parser));
+          break;
+        default:
+          throw unrecognized(parser, field, EventDto.class);
+      }
+    }
+    return event;
+  }
+
+  private static Map<String, String> readStringMap(JsonParser parser) throws IOException {
+    if (isNull(parser)) {
+      return null;
+    }
+    Map<String, String> values = new LinkedHashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String key = parser.getCurrentName();
+      parser.nextToken();
+      values.put(key, readString(parser));
+    }
+    return values;
+  }
+
+  private static List<String> readStrings(JsonParser parser) throws IOException {
+    if (isNullArray(parser)) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      values.add(readString(parser));
+    }
+    return values;
+  }
+
+  /**
+   * Scalars of any kind are taken as their text, as the object mapper does for string fields.
+   */
+  private static String readString(JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw JsonMappingException.from(parser, "Expected a scalar value but found " + token);
+    }
+    return parser.getText();
+  }
+
+  /**
+   * @return true on a null, false on the start of an object
+   */
+  private static boolean isNull(JsonParser parser) throws JsonMappingException {
+    return isNull(parser, JsonToken.START_OBJECT);
+  }
+
+  /**
+   * @return true on a null, false on the start of an array
+   */
+  private static boolean isNullArray(JsonParser parser) throws JsonMappingException {
+    return isNull(parser, JsonToken.START_ARRAY);
+  }
+
+  private static boolean isNull(JsonParser parser, JsonToken start) throws JsonMappingException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return true;
+    }
+    if (token != start) {
+      throw JsonMappingException.from(parser, "Expected " + start + " but found " + token);
+    }
+    return false;
+  }
+
+  private static JsonMappingException unrecognized(JsonParser parser, String field, Class<?> type) {
+    return JsonMappingException.from(parser, "Unrecognized field \"" + field + "\" (class " + type.getName()
+        + ")");
+  }
+
+  private static void writeStackState(JsonGenerator generator, StackStateDto stackState) throws IOException {
+    generator.writeStartObject();
+    generator.writeFieldName(GRAPH);
+    if (stackState.getGraph() == null) {
+      generator.writeNull();
+    } else {
+      writeGraph(generator, stackState.getGraph());
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeGraph(JsonGenerator generator, GraphDto graph) throws IOException {
+    generator.writeStartObject();
+    generator.writeFieldName(COMPONENTS);
+    if (graph.getComponents() == null) {
+      generator.writeNull();
+    } else {
+      generator.writeStartArray();
+      for (ComponentDto component : graph.getComponents()) {
+        if (component == null) {
+          generator.writeNull();
+        } else {
+          writeComponent(generator, component);
+        }
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Leaves out null fields, as {@link ComponentDto} asks the object mapper to.
+   */
+  private static void writeComponent(JsonGenerator generator, ComponentDto component) throws IOException {
+    generator.writeStartObject();
+    writeStringIfPresent(generator, ID, component.getId());
+    writeStringIfPresent(generator, OWN_STATE, component.getOwnState());
+    writeStringIfPresent(generator, DERIVED_STATE, component.getDerivedState());
+    if (component.getCheckStates() != null) {
+      generator.writeObjectFieldStart(CHECK_STATES);
+      for (Entry<String, String> checkState : component.getCheckStates().entrySet()) {
+        generator.writeStringField(checkState.getKey(), checkState.getValue());
+      }
+      generator.writeEndObject();
+    }
+    writeStringsIfPresent(generator, DEPENDS_ON, component.getDependsOn());
+    writeStringsIfPresent(generator, DEPENDENCY_OF, component.getDependencyOf());
+    generator.writeEndObject();
+  }
+
+  private static void writeStackEvents(JsonGenerator generator, StackEventDto stackEvents) throws IOException {
+    generator.writeStartObject();
+    generator.writeFieldName(EVENTS);
+    if (stackEvents.getEvents() == null) {
+      generator.writeNull();
+    } else {
+      generator.writeStartArray();
+      for (EventDto event : stackEvents.getEvents()) {
+        if (event == null) {
+          generator.writeNull();
+        } else {
+          writeEvent(generator, event);
+        }
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeEvent(JsonGenerator generator, EventDto event) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField(TIMESTAMP, event.getTimestamp());
+    generator.writeStringField(COMPONENT, event.getComponent());
+    generator.writeStringField(CHECK_STATE, event.getCheckState());
+    generator.writeStringField(STATE, event.getState());
+    generator.writeEndObject();
+  }
+
+  private static void writeStringIfPresent(JsonGenerator generator, String field, String value) throws IOException {
+    if (value != null) {
+      generator.writeStringField(field, value);
+    }
+  }
+
+  private static void writeStringsIfPresent(JsonGenerator generator, String field, List<String> values)
+      throws IOException {
+    if (values == null) {
+      return;
+    }
+    generator.writeArrayFieldStart(field);
+    for (String value : values) {
+      generator.writeString(value);
+    }
+    generator.writeEndArray();
+  }
+}
@@ -0,0 +1,44 @@
+package stackstate.io.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Binds the DTOs with an object mapper, configured as the DTOs need, e.g. with
+ * {@link com.fasterxml.jackson.databind.PropertyNamingStrategy#SNAKE_CASE}.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ObjectMapperDtoCodec implements DtoCodec {
+
+  private final ObjectMapper objectMapper;
+
+  public static ObjectMapperDtoCodec of(ObjectMapper objectMapper) {
+    return new ObjectMapperDtoCodec(objectMapper);
+  }
+
+  @Override
+  public JsonFactory getFactory() {
+    return objectMapper.getFactory();
+  }
+
+  @Override
+  public boolean isIndentOutput() {
+    return objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT);
+  }
+
+  @Override
+  public <T> T readValue(JsonParser parser, Class<T> type) throws IOException {
+    return objectMapper.readValue(parser, type);
+  }
+
+  @Override
+  public void writeValue(JsonGenerator generator, Object value) throws IOException {
+    objectMapper.writeValue(generator, value);
+  }
+}
@@ -0,0 +1,132 @@
+package stackstate.io.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+
+/**
+ * A binary event log (see {@link EventLogFormat}) mapped into memory. Records are decoded straight
+ * from the mapped pages, and names are resolved through the dictionary read once when opening.
+ */
+public class EventLog implements Closeable {
+
+  private static final StateValue[] STATES = StateValue.values();
+  private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / EventLogFormat.RECORD_SIZE;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer[] segments;
+  private final String[] names;
+  private final long size;
+
+  private EventLog(FileChannel channel) throws IOException {
+    this.channel = channel;
+    MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, Math.min(channel.size(), EventLogFormat.HEADER_SIZE));
+    if (header.limit() < EventLogFormat.HEADER_SIZE || header.getInt(0) != EventLogFormat.MAGIC) {
+      throw corrupt("not an event log");
+    }
+    if (header.getInt(4) != EventLogFormat.VERSION) {
+      throw corrupt("unsupported version " + header.getInt(4));
+    }
+    this.size = header.getLong(EventLogFormat.EVENT_COUNT_OFFSET);
+    long dictionaryOffset = header.getLong(EventLogFormat.DICTIONARY_OFFSET_OFFSET);
+    if (size < 0 || dictionaryOffset != EventLogFormat.HEADER_SIZE + size * EventLogFormat.RECORD_SIZE
+        || dictionaryOffset > channel.size()) {
+      throw corrupt("records do not match the header");
+    }
+    this.names = readNames(dictionaryOffset, header.getInt(EventLogFormat.NAME_COUNT_OFFSET));
+    this.segments = new MappedByteBuffer[(int) ((size + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT)];
+    for (int segment = 0; segment < segments.length; segment++) {
+      long first = (long) segment * RECORDS_PER_SEGMENT;
+      long records = Math.min(RECORDS_PER_SEGMENT, size - first);
+      segments[segment] = channel.map(MapMode.READ_ONLY,
+          EventLogFormat.HEADER_SIZE + first * EventLogFormat.RECORD_SIZE, records * EventLogFormat.RECORD_SIZE);
+    }
+  }
+
+  public static EventLog open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new EventLog(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public Event get(long index) {
+    MappedByteBuffer segment = segments[(int) (index / RECORDS_PER_SEGMENT)];
+    int offset = (int) (index % RECORDS_PER_SEGMENT) * EventLogFormat.RECORD_SIZE;
+    return Event.of(
+        segment.getLong(offset),
+        name(segment.getInt(offset + 8)),
+        name(segment.getInt(offset + 12)),
+        state(segment.get(offset + 16)));
+  }
+
+  /**
+   * The events in log order. The stream splits evenly, so it can be made parallel.
+   */
+  public Stream<Event> stream() {
+    return LongStream.range(0, size).mapToObj(this::get);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private String[] readNames(long offset, int count) throws IOException {
+    if (count < 0) {
+      throw corrupt("negative name count");
+    }
+    MappedByteBuffer dictionary = channel.map(MapMode.READ_ONLY, offset, channel.size() - offset);
+    String[] names = new String[count];
+    for (int index = 0; index < count; index++) {
+      if (dictionary.remaining() < Integer.BYTES) {
+        throw corrupt("truncated dictionary");
+      }
+      int length = dictionary.getInt();
+      if (length < 0 || dictionary.remaining() < length) {
+        throw corrupt("truncated dictionary");
+      }
+      byte[] bytes = new byte[length];
+      dictionary.get(bytes);
+      names[index] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return names;
+  }
+
+  private String name(int index) {
+    if (index == EventLogFormat.NO_NAME) {
+      return null;
+    }
+    if (index < 0 || index >= names.length) {
+      throw corrupt("unknown name " + index);
+    }
+    return names[index];
+  }
+
+  private static StateValue state(byte ordinal) {
+    if (ordinal < 0 || ordinal >= STATES.length) {
+      throw corrupt("unknown state " + ordinal);
+    }
+    return STATES[ordinal];
+  }
+
+  private static IllegalArgumentException corrupt(String reason) {
+    return new IllegalArgumentException("Event log is corrupt: " + reason);
+  }
+}
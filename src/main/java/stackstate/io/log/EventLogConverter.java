@@ -0,0 +1,49 @@
+package stackstate.io.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import stackstate.domain.event.Event;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.reader.StreamingJsonFileReader;
+
+/**
+ * Converts an events json file into a binary event log:
+ * {@code java -cp stack-state.jar stackstate.io.log.EventLogConverter events.json events.log}
+ */
+public class EventLogConverter {
+
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println("An events json file and a target event log are required");
+      return;
+    }
+    try (Stream<Event> events = StreamingJsonFileReader.streamEvents(args[0],
+        ObjectMapperDtoCodec.of(new ObjectMapper()))) {
+      long count = convert(events, Paths.get(args[1]));
+      System.out.println(count + " events written to " + args[1]);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+    } catch (IOException e) {
+      System.out.println("I/O error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * @return the number of events written
+   */
+  public static long convert(Stream<Event> events, Path eventLog) throws IOException {
+    long count = 0;
+    try (EventLogWriter writer = new EventLogWriter(eventLog)) {
+      Iterator<Event> iterator = events.iterator();
+      while (iterator.hasNext()) {
+        writer.write(iterator.next());
+        count++;
+      }
+    }
+    return count;
+  }
+}
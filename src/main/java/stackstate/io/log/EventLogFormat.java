@@ -0,0 +1,27 @@
+package stackstate.io.log;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Layout of a binary event log, big endian throughout:
+ * <pre>
+ * header      int magic, int version, long event count, long dictionary offset, int name count, int unused
+ * events      one fixed width record per event: long timestamp, int component name, int check name
+ *             (-1 when missing), byte state value ordinal
+ * dictionary  one entry per name, in index order: int byte length, UTF-8 bytes
+ * </pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class EventLogFormat {
+
+  static final int MAGIC = 0x53534556;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int RECORD_SIZE = 17;
+  static final int NO_NAME = -1;
+
+  static final int EVENT_COUNT_OFFSET = 8;
+  static final int DICTIONARY_OFFSET_OFFSET = 16;
+  static final int NAME_COUNT_OFFSET = 24;
+}
@@ -0,0 +1,102 @@
+package stackstate.io.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import stackstate.domain.event.Event;
+
+/**
+ * Writes events to a binary event log (see {@link EventLogFormat}). The header and the dictionary
+ * are only complete once the writer is closed.
+ */
+public class EventLogWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final Map<String, Integer> nameIndexes = new HashMap<>();
+  private final List<String> names = new ArrayList<>();
+  private long eventCount;
+
+  public EventLogWriter(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    buffer.position(EventLogFormat.HEADER_SIZE);
+  }
+
+  public void write(Event event) throws IOException {
+    ensureRoom(EventLogFormat.RECORD_SIZE);
+    buffer.putLong(event.getTimestamp());
+    buffer.putInt(indexOf(event.getComponent()));
+    buffer.putInt(indexOf(event.getCheckState()));
+    buffer.put((byte) event.getState().ordinal());
+    eventCount++;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      long dictionaryOffset = channel.position() + buffer.position();
+      for (String name : names) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(Integer.BYTES);
+        buffer.putInt(bytes.length);
+        for (int offset = 0; offset < bytes.length; offset += BUFFER_SIZE) {
+          int length = Math.min(BUFFER_SIZE, bytes.length - offset);
+          ensureRoom(length);
+          buffer.put(bytes, offset, length);
+        }
+      }
+      flush();
+      ByteBuffer header = ByteBuffer.allocate(EventLogFormat.HEADER_SIZE)
+          .putInt(EventLogFormat.MAGIC)
+          .putInt(EventLogFormat.VERSION)
+          .putLong(eventCount)
+          .putLong(dictionaryOffset)
+          .putInt(names.size())
+          .putInt(0);
+      header.flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private int indexOf(String name) {
+    if (name == null) {
+      return EventLogFormat.NO_NAME;
+    }
+    Integer index = nameIndexes.get(name);
+    if (index == null) {
+      index = names.size();
+      names.add(name);
+      nameIndexes.put(name, index);
+    }
+    return index;
+  }
+
+  private void ensureRoom(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush();
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,82 @@
+package stackstate.io.mapper;
+
+import java.util.Arrays;
+import stackstate.io.exception.IllegalEventConfigurationException;
+
+/**
+ * Open addressing set of the timestamps seen so far in an event chain, stored as primitive longs
+ * so the uniqueness rule costs a slot in a long[] per event instead of a boxed Long and a hash node.
+ */
+public class EventTimestampRegistry {
+
+  private static final long FREE = Long.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] slots;
+  private int size;
+  private boolean containsFreeMarker;
+
+  public EventTimestampRegistry() {
+    slots = newSlots(INITIAL_CAPACITY);
+  }
+
+  public void register(long timestamp) {
+    if (!add(timestamp)) {
+      throw new IllegalEventConfigurationException("Timestamp number must be unique across the event chain");
+    }
+  }
+
+  public int size() {
+    return size + (containsFreeMarker ? 1 : 0);
+  }
+
+  private boolean add(long timestamp) {
+    if (timestamp == FREE) {
+      boolean added = !containsFreeMarker;
+      containsFreeMarker = true;
+      return added;
+    }
+    if ((size + 1) * 2 > slots.length) {
+      grow();
+    }
+    boolean added = insert(slots, timestamp);
+    if (added) {
+      size++;
+    }
+    return added;
+  }
+
+  private boolean insert(long[] target, long timestamp) {
+    int mask = target.length - 1;
+    int index = mix(timestamp) & mask;
+    while (target[index] != FREE) {
+      if (target[index] == timestamp) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    target[index] = timestamp;
+    return true;
+  }
+
+  private void grow() {
+    long[] previous = slots;
+    slots = newSlots(previous.length * 2);
+    for (long timestamp : previous) {
+      if (timestamp != FREE) {
+        insert(slots, timestamp);
+      }
+    }
+  }
+
+  private static long[] newSlots(int capacity) {
+    long[] slots = new long[capacity];
+    Arrays.fill(slots, FREE);
+    return slots;
+  }
+
+  private static int mix(long timestamp) {
+    long hash = timestamp * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -12,34 +12,47 @@ import stackstate.io.exception.IllegalEventConfigurationException;
 public class StackEventMapper {
 
   public EventChain map(StackEventDto dto) {
+    EventTimestampRegistry timestamps = new EventTimestampRegistry();
     List<Event> events = dto.getEvents()
         .stream()
-        .map(event -> Event.builder()
-            .component(event.getComponent())
-            .timestamp(mapToTimestamp(event))
-            .checkState(event.getCheckState())
-            .state(mapToStateValue(event.getState()))
-            .build())
+        .map(this::map)
+        .peek(event -> timestamps.register(event.getTimestamp()))
         .collect(Collectors.toList());
 
-    if (events.stream().map(Event::getTimestamp).distinct().count() < events.size()) {
-      throw new IllegalEventConfigurationException("Timestamp number must be unique across the event chain");
-    }
-
     return EventChain.withEvents(events);
   }
 
-  private long mapToTimestamp(EventDto event) {
+  public Event map(EventDto event) {
+    return map(event.getTimestamp(), event.getComponent(), event.getCheckState(), event.getState());
+  }
+
+  public Event map(String timestamp, String component, String checkState, String state) {
+    return Event.builder()
+        .component(mapToComponent(component))
+        .timestamp(mapToTimestamp(timestamp))
+        .checkState(checkState)
+        .state(mapToStateValue(state))
+        .build();
+  }
+
+  private long mapToTimestamp(String timestamp) {
     try {
-      return Long.parseLong(event.getTimestamp());
+      return Long.parseLong(timestamp);
     } catch (NumberFormatException e) {
       throw new IllegalEventConfigurationException("Timestamp needs to be a number");
     }
   }
 
+  private String mapToComponent(String component) {
+    if (component == null) {
+      throw new IllegalEventConfigurationException("Component name is required");
+    }
+    return component;
+  }
+
   private StateValue mapToStateValue(String state) {
     try {
-      StateValue stateValue = StateValue.valueOf(state.toUpperCase());
+      StateValue stateValue = StateValue.valueOf(String.valueOf(state).toUpperCase());
       return stateValue;
     } catch (IllegalArgumentException e) {
       throw new IllegalEventConfigurationException("State '" + state + "' is not a valid state");
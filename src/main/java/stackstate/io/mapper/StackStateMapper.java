@@ -1,6 +1,8 @@
 package stackstate.io.mapper;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,6 +22,8 @@ import stackstate.io.exception.IllegalComponentConfigurationException;
 
 public class StackStateMapper {
 
+  private static final Comparator<String> BY_NAME = Comparator.nullsFirst(Comparator.naturalOrder());
+
   public StackState map(StackStateDto dto) {
     List<Component> components = dto.componentsStream()
         .map(this::mapToComponent)
@@ -57,14 +61,13 @@ public class StackStateMapper {
   }
 
   private Map<String, String> mapToKeyStringValueMap(Component component) {
-    return component.getCheckedState()
-        .getValues()
+    Map<String, String> checkStates = new LinkedHashMap<>();
+    component.getCheckStates()
         .entrySet()
         .stream()
-        .collect(Collectors.toMap(
-            entry -> entry.getKey(),
-            entry -> mapToStringValue(entry.getValue())
-        ));
+        .sorted(Map.Entry.comparingByKey(BY_NAME))
+        .forEach(entry -> checkStates.put(entry.getKey(), mapToStringValue(entry.getValue())));
+    return checkStates;
   }
 
   private Component mapToComponent(ComponentDto componentDto) {
@@ -103,6 +106,7 @@ public class StackStateMapper {
     return components == null || components.isEmpty() ? null : components
         .stream()
         .map(Component::getId)
+        .sorted(BY_NAME)
         .collect(Collectors.toList());
   }
 
@@ -0,0 +1,61 @@
+package stackstate.io.reader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+import stackstate.StackState;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.log.EventLog;
+
+/**
+ * Reads the initial state from json and the events from a binary event log, see
+ * {@link stackstate.io.log.EventLogConverter}.
+ */
+public class BinaryEventLogReader implements StackStateReader {
+
+  private final StackStateReader initialStateReader;
+  private final String eventLogPath;
+
+  public BinaryEventLogReader(String stateFilePath, String eventLogPath, DtoCodec codec) {
+    this.initialStateReader = new ExternalJsonFileReader(stateFilePath, eventLogPath, codec);
+    this.eventLogPath = eventLogPath;
+  }
+
+  @Override
+  public StackState readInitialState() {
+    return initialStateReader.readInitialState();
+  }
+
+  @Override
+  public EventChain readEvents() {
+    try (Stream<Event> events = streamEvents()) {
+      return ColumnarEventChain.of(events);
+    }
+  }
+
+  @Override
+  public Stream<Event> streamEvents() {
+    EventLog eventLog = open();
+    return eventLog.stream()
+        .onClose(() -> {
+          try {
+            eventLog.close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  private EventLog open() {
+    try {
+      return EventLog.open(Paths.get(eventLogPath));
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+}
@@ -0,0 +1,57 @@
+package stackstate.io.reader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+import stackstate.StackState;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.snapshot.StackStateSnapshot;
+
+/**
+ * Reads the initial state from a binary snapshot (see {@link StackStateSnapshot}) and streams the
+ * events from json.
+ */
+public class BinarySnapshotReader implements StackStateReader {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final String snapshotFilePath;
+  private final StackStateReader eventsReader;
+
+  public BinarySnapshotReader(String snapshotFilePath, String eventsFilePath, DtoCodec codec) {
+    this(snapshotFilePath, new StreamingJsonFileReader(snapshotFilePath, eventsFilePath, codec));
+  }
+
+  /**
+   * Reads the events with the given reader, whatever initial state it would read.
+   */
+  public BinarySnapshotReader(String snapshotFilePath, StackStateReader eventsReader) {
+    this.snapshotFilePath = snapshotFilePath;
+    this.eventsReader = eventsReader;
+  }
+
+  @Override
+  public StackState readInitialState() {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(snapshotFilePath)), BUFFER_SIZE)) {
+      return StackStateSnapshot.read(in);
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+  @Override
+  public EventChain readEvents() {
+    return eventsReader.readEvents();
+  }
+
+  @Override
+  public Stream<Event> streamEvents() {
+    return eventsReader.streamEvents();
+  }
+
+}
@@ -1,18 +1,21 @@
 package stackstate.io.reader;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
 import java.io.File;
 import java.io.IOException;
 import lombok.AllArgsConstructor;
 import stackstate.StackState;
 import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
 import stackstate.io.dto.event.StackEventDto;
 import stackstate.io.dto.state.StackStateDto;
 import stackstate.io.mapper.StackEventMapper;
 import stackstate.io.mapper.StackStateMapper;
 
+/**
+ * Reads both files whole, binding them to DTOs with the given codec: over an object mapper, or a
+ * {@link stackstate.io.codec.DtoJsonCodec} to start without one.
+ */
 @AllArgsConstructor
 public class ExternalJsonFileReader implements StackStateReader {
 
@@ -21,35 +24,31 @@ public class ExternalJsonFileReader implements StackStateReader {
 
   private final String stateFilePath;
   private final String eventsFilePath;
-  private final ObjectMapper objectMapper;
+  private final DtoCodec codec;
 
   @Override
   public StackState readInitialState() {
-    StackStateDto stackStateDto = read(() -> {
-      File file = new File(stateFilePath);
-      return objectMapper.readValue(file, StackStateDto.class);
-    });
+    StackStateDto stackStateDto = read(() -> readValue(new File(stateFilePath), StackStateDto.class));
     return stackStateMapper.map(stackStateDto);
   }
 
   @Override
   public EventChain readEvents() {
-    StackEventDto stackStateDto = read(() -> {
-      File file = new File(eventsFilePath);
-      return objectMapper.readValue(file, StackEventDto.class);
-    });
+    StackEventDto stackStateDto = read(() -> readValue(new File(eventsFilePath), StackEventDto.class));
     return stackEventMapper.map(stackStateDto);
   }
 
+  private <T> T readValue(File file, Class<T> type) throws IOException {
+    try (JsonParser parser = codec.getFactory().createParser(file)) {
+      return codec.readValue(parser, type);
+    }
+  }
+
   private <T> T read(InputOutputDtoSupplier<T> readSupplier) {
     try {
       return readSupplier.get();
-    } catch (JsonMappingException e) {
-      throw new IllegalArgumentException("Cannot map json content to DTO: " + e.getMessage());
-    } catch (JsonParseException e) {
-      throw new IllegalArgumentException("JSON content is malformed: " + e.getMessage());
     } catch (IOException e) {
-      throw new IllegalArgumentException("I/O error: " + e.getMessage());
+      throw JsonReadFailures.translate(e);
     }
   }
 
@@ -0,0 +1,149 @@
+package stackstate.io.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import stackstate.domain.event.Event;
+import stackstate.io.mapper.EventTimestampRegistry;
+import stackstate.io.mapper.StackEventMapper;
+
+/**
+ * Walks the {@code "events"} array of an events document token by token, mapping and validating
+ * one event at a time so that only the event being read is held in memory.
+ */
+class JsonEventIterator implements Iterator<Event>, Closeable {
+
+  private static final String EVENTS = "events";
+  private static final String TIMESTAMP = "timestamp";
+  private static final String COMPONENT = "component";
+  private static final String CHECK_STATE = "check_state";
+  private static final String STATE = "state";
+
+  private final JsonParser parser;
+  private final StackEventMapper mapper;
+  private final EventTimestampRegistry timestamps = new EventTimestampRegistry();
+
+  private boolean insideEvents;
+  private Event next;
+
+  JsonEventIterator(JsonParser parser, StackEventMapper mapper) {
+    this.parser = parser;
+    this.mapper = mapper;
+    try {
+      expect(parser.nextToken(), JsonToken.START_OBJECT);
+      insideEvents = moveToEvents();
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && insideEvents) {
+      next = readNext();
+    }
+    return next != null;
+  }
+
+  @Override
+  public Event next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Event event = next;
+    next = null;
+    return event;
+  }
+
+  @Override
+  public void close() {
+    try {
+      parser.close();
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+  private Event readNext() {
+    try {
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY) {
+        insideEvents = moveToEvents();
+        return insideEvents ? readNext() : null;
+      }
+      expect(token, JsonToken.START_OBJECT);
+      Event event = readEvent();
+      timestamps.register(event.getTimestamp());
+      return event;
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+  private Event readEvent() throws IOException {
+    String timestamp = null;
+    String component = null;
+    String checkState = null;
+    String state = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      String value = readScalar(parser.nextToken());
+      switch (field) {
+        case TIMESTAMP:
+          timestamp = value;
+          break;
+        case COMPONENT:
+          component = value;
+          break;
+        case CHECK_STATE:
+          checkState = value;
+          break;
+        case STATE:
+          state = value;
+          break;
+        default:
+          throw JsonReadFailures.unmappable("Unrecognized field \"" + field + "\"");
+      }
+    }
+    expect(parser.currentToken(), JsonToken.END_OBJECT);
+    return mapper.map(timestamp, component, checkState, state);
+  }
+
+  /**
+   * Advances through the root object up to the start of the events array.
+   *
+   * @return false when the root object ends without any further events array
+   */
+  private boolean moveToEvents() throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      if (!EVENTS.equals(field)) {
+        throw JsonReadFailures.unmappable("Unrecognized field \"" + field + "\"");
+      }
+      JsonToken value = parser.nextToken();
+      if (value == JsonToken.START_ARRAY) {
+        return true;
+      }
+      expect(value, JsonToken.VALUE_NULL);
+    }
+    expect(token, JsonToken.END_OBJECT);
+    return false;
+  }
+
+  private String readScalar(JsonToken token) throws IOException {
+    if (token == null || token.isStructStart()) {
+      throw JsonReadFailures.unmappable("Expected a scalar value but found " + token);
+    }
+    return token == JsonToken.VALUE_NULL ? null : parser.getText();
+  }
+
+  private void expect(JsonToken actual, JsonToken expected) {
+    if (actual != expected) {
+      throw JsonReadFailures.unmappable("Expected " + expected + " but found " + actual);
+    }
+  }
+}
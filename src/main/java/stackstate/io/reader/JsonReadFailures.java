@@ -0,0 +1,25 @@
+package stackstate.io.reader;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import java.io.IOException;
+
+final class JsonReadFailures {
+
+  private JsonReadFailures() {
+  }
+
+  static IllegalArgumentException translate(IOException e) {
+    if (e instanceof JsonMappingException) {
+      return new IllegalArgumentException("Cannot map json content to DTO: " + e.getMessage());
+    }
+    if (e instanceof JsonParseException) {
+      return new IllegalArgumentException("JSON content is malformed: " + e.getMessage());
+    }
+    return new IllegalArgumentException("I/O error: " + e.getMessage());
+  }
+
+  static IllegalArgumentException unmappable(String reason) {
+    return new IllegalArgumentException("Cannot map json content to DTO: " + reason);
+  }
+}
@@ -0,0 +1,34 @@
+package stackstate.io.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import stackstate.domain.event.Event;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.mapper.StackEventMapper;
+
+/**
+ * Parses newline-delimited json events, each line holding one event object with the same fields as
+ * the entries of an events file.
+ */
+public class NdjsonEventParser {
+
+  private final StackEventMapper stackEventMapper = new StackEventMapper();
+  private final DtoCodec codec;
+
+  public NdjsonEventParser(DtoCodec codec) {
+    this.codec = codec;
+  }
+
+  public Event parse(String line) {
+    try (JsonParser parser = codec.getFactory().createParser(line)) {
+      EventDto event = codec.readValue(parser, EventDto.class);
+      if (event == null) {
+        throw JsonReadFailures.unmappable("Expected an event but found null");
+      }
+      return stackEventMapper.map(event);
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package stackstate.io.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import stackstate.StackState;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.exception.IllegalEventConfigurationException;
+import stackstate.io.mapper.StackEventMapper;
+
+/**
+ * Reads the initial state from json and the events from a newline-delimited json file, one event
+ * object per line (see {@link NdjsonEventParser}), using every core: the file is split at line
+ * boundaries into chunks, each chunk is parsed and sorted on its own on a fork/join pool, and the
+ * sorted chunks are merged by timestamp. The events come out in timestamp order, events with the same
+ * timestamp in file order, so {@link stackstate.StateCalculator} has nothing left to sort.
+ */
+public class ParallelNdjsonFileReader implements StackStateReader {
+
+  private static final long MIN_CHUNK_SIZE = 1 << 20;
+  private static final long MAX_CHUNK_SIZE = 1 << 26;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final int SCAN_SIZE = 1 << 13;
+
+  private final StackStateReader initialStateReader;
+  private final String eventsFilePath;
+  private final DtoCodec codec;
+  private final ForkJoinPool pool;
+  private final long chunkSize;
+
+  public ParallelNdjsonFileReader(String stateFilePath, String eventsFilePath, DtoCodec codec) {
+    this(stateFilePath, eventsFilePath, codec, ForkJoinPool.commonPool(), 0);
+  }
+
+  /**
+   * @param chunkSize bytes per chunk, or 0 to have about {@value #CHUNKS_PER_THREAD} chunks per thread
+   * of the pool
+   */
+  public ParallelNdjsonFileReader(String stateFilePath, String eventsFilePath, DtoCodec codec,
+      ForkJoinPool pool, long chunkSize) {
+    this.initialStateReader = new ExternalJsonFileReader(stateFilePath, eventsFilePath, codec);
+    this.eventsFilePath = eventsFilePath;
+    this.codec = codec;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public StackState readInitialState() {
+    return initialStateReader.readInitialState();
+  }
+
+  @Override
+  public EventChain readEvents() {
+    try (FileChannel channel = FileChannel.open(Paths.get(eventsFilePath), StandardOpenOption.READ)) {
+      List<ForkJoinTask<ColumnarEventChain>> chunks = chunksOf(channel).stream()
+          .map(chunk -> pool.submit(() -> parse(channel, chunk[0], chunk[1])))
+          .collect(Collectors.toList());
+      List<ColumnarEventChain> sortedChunks = new ArrayList<>(chunks.size());
+      for (ForkJoinTask<ColumnarEventChain> chunk : chunks) {
+        sortedChunks.add(resultOf(chunk));
+      }
+      return checkUniqueTimestamps(ColumnarEventChain.merge(sortedChunks));
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    } catch (UncheckedIOException e) {
+      throw JsonReadFailures.translate(e.getCause());
+    }
+  }
+
+  private static ColumnarEventChain resultOf(ForkJoinTask<ColumnarEventChain> chunk) {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalArgumentException("Interrupted while reading events");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalArgumentException(e.getCause());
+    }
+  }
+
+  private List<long[]> chunksOf(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long targetSize = chunkSize > 0 ? chunkSize : Math.min(MAX_CHUNK_SIZE,
+        Math.max(MIN_CHUNK_SIZE, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+    List<long[]> chunks = new ArrayList<>();
+    long start = 0;
+    while (start < size) {
+      long end = start + targetSize >= size ? size : lineStartFrom(channel, start + targetSize, size);
+      chunks.add(new long[]{start, end});
+      start = end;
+    }
+    return chunks;
+  }
+
+  /**
+   * @return the position just past the first line break at or after the given one
+   */
+  private static long lineStartFrom(FileChannel channel, long position, long size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+    for (long scanned = position; scanned < size; scanned += buffer.limit()) {
+      buffer.clear();
+      readFully(channel, buffer, scanned, Math.min(SCAN_SIZE, size - scanned));
+      for (int index = 0; index < buffer.limit(); index++) {
+        if (buffer.get(index) == '\n') {
+          return scanned + index + 1;
+        }
+      }
+    }
+    return size;
+  }
+
+  private ColumnarEventChain parse(FileChannel channel, long start, long end) {
+    ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+    try {
+      readFully(channel, buffer, start, end - start);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] bytes = buffer.array();
+    StackEventMapper mapper = new StackEventMapper();
+    List<Event> events = new ArrayList<>();
+    int lineStart = 0;
+    for (int index = 0; index <= bytes.length; index++) {
+      if (index == bytes.length || bytes[index] == '\n') {
+        if (!isBlank(bytes, lineStart, index)) {
+          events.add(mapper.map(parseLine(bytes, lineStart, index - lineStart)));
+        }
+        lineStart = index + 1;
+      }
+    }
+    return ColumnarEventChain.of(events).sorted();
+  }
+
+  private EventDto parseLine(byte[] bytes, int offset, int length) {
+    try (JsonParser parser = codec.getFactory().createParser(bytes, offset, length)) {
+      EventDto event = codec.readValue(parser, EventDto.class);
+      if (event == null) {
+        throw JsonReadFailures.unmappable("Expected an event but found null");
+      }
+      return event;
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+  }
+
+  private static ColumnarEventChain checkUniqueTimestamps(ColumnarEventChain events) {
+    for (int index = 1; index < events.size(); index++) {
+      if (events.timestampAt(index) == events.timestampAt(index - 1)) {
+        throw new IllegalEventConfigurationException("Timestamp number must be unique across the event chain");
+      }
+    }
+    return events;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position, long length)
+      throws IOException {
+    buffer.limit((int) length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+    }
+    buffer.flip();
+  }
+
+  private static boolean isBlank(byte[] bytes, int from, int to) {
+    for (int index = from; index < to; index++) {
+      if (!Character.isWhitespace(bytes[index])) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
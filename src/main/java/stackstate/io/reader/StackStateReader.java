@@ -1,6 +1,8 @@
 package stackstate.io.reader;
 
+import java.util.stream.Stream;
 import stackstate.StackState;
+import stackstate.domain.event.Event;
 import stackstate.domain.event.EventChain;
 
 public interface StackStateReader {
@@ -9,4 +11,11 @@ public interface StackStateReader {
 
   EventChain readEvents();
 
+  /**
+   * Reads the events lazily. The returned stream must be closed once consumed.
+   */
+  default Stream<Event> streamEvents() {
+    return readEvents().stream();
+  }
+
 }
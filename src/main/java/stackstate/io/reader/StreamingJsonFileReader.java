@@ -0,0 +1,78 @@
+package stackstate.io.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.File;
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import stackstate.StackState;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.mapper.StackEventMapper;
+
+public class StreamingJsonFileReader implements StackStateReader {
+
+  private final StackEventMapper stackEventMapper = new StackEventMapper();
+
+  private final StackStateReader initialStateReader;
+  private final String eventsFilePath;
+  private final DtoCodec codec;
+
+  public StreamingJsonFileReader(String stateFilePath, String eventsFilePath, DtoCodec codec) {
+    this.initialStateReader = new ExternalJsonFileReader(stateFilePath, eventsFilePath, codec);
+    this.eventsFilePath = eventsFilePath;
+    this.codec = codec;
+  }
+
+  @Override
+  public StackState readInitialState() {
+    return initialStateReader.readInitialState();
+  }
+
+  @Override
+  public EventChain readEvents() {
+    try (Stream<Event> events = streamEvents()) {
+      return ColumnarEventChain.of(events);
+    }
+  }
+
+  /**
+   * Streams the events of a json file on their own, with no initial state involved.
+   */
+  public static Stream<Event> streamEvents(String eventsFilePath, DtoCodec codec) {
+    return new StreamingJsonFileReader(null, eventsFilePath, codec).streamEvents();
+  }
+
+  @Override
+  public Stream<Event> streamEvents() {
+    JsonEventIterator iterator = openEvents();
+    Spliterator<Event> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false)
+        .onClose(iterator::close);
+  }
+
+  private JsonEventIterator openEvents() {
+    JsonParser parser;
+    try {
+      parser = codec.getFactory().createParser(new File(eventsFilePath));
+    } catch (IOException e) {
+      throw JsonReadFailures.translate(e);
+    }
+    try {
+      return new JsonEventIterator(parser, stackEventMapper);
+    } catch (RuntimeException e) {
+      try {
+        parser.close();
+      } catch (IOException closeFailure) {
+        e.addSuppressed(closeFailure);
+      }
+      throw e;
+    }
+  }
+
+}
@@ -0,0 +1,191 @@
+package stackstate.io.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.state.CheckedState;
+import stackstate.domain.state.DerivedState;
+import stackstate.domain.state.OwnState;
+
+/**
+ * Binary snapshot of a stack state, big endian throughout:
+ * <pre>
+ * header      int magic, int version
+ * names       int count, then per name: int byte length (-1 when missing), UTF-8 bytes, for both
+ *             component ids and check names
+ * components  int count, then per component: int id name, byte own state, byte derived state,
+ *             int check count, per check: int check name, byte state,
+ *             int dependency count, per dependency: int component index
+ * </pre>
+ * States are written as state value ordinals. Dependencies refer to components by their position in
+ * the snapshot, so loading takes a single pass with no id lookups. Dependencies on components
+ * outside the stack state are left out.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StackStateSnapshot {
+
+  private static final int MAGIC = 0x5353534E;
+  private static final int VERSION = 1;
+  private static final int MISSING_NAME = -1;
+  private static final StateValue[] STATES = StateValue.values();
+
+  public static void write(StackState stackState, OutputStream out) throws IOException {
+    DataOutputStream output = new DataOutputStream(out);
+    List<Component> components = new ArrayList<>(stackState.size());
+    Map<Component, Integer> positions = new IdentityHashMap<>(stackState.size());
+    stackState.stream()
+        .filter(component -> positions.putIfAbsent(component, components.size()) == null)
+        .forEach(components::add);
+    Map<String, Integer> nameIndexes = new HashMap<>();
+    List<String> names = new ArrayList<>();
+    for (Component component : components) {
+      index(component.getId(), nameIndexes, names);
+      component.getCheckStates().keySet().forEach(check -> index(check, nameIndexes, names));
+    }
+
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(names.size());
+    for (String name : names) {
+      if (name == null) {
+        output.writeInt(MISSING_NAME);
+      } else {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+    }
+    output.writeInt(components.size());
+    for (Component component : components) {
+      output.writeInt(nameIndexes.get(component.getId()));
+      output.writeByte(component.getOwnState().value().ordinal());
+      output.writeByte(component.getDerivedState().value().ordinal());
+      Map<String, StateValue> checks = component.getCheckStates();
+      output.writeInt(checks.size());
+      for (Map.Entry<String, StateValue> check : checks.entrySet()) {
+        output.writeInt(nameIndexes.get(check.getKey()));
+        output.writeByte(check.getValue().ordinal());
+      }
+      List<Integer> dependencies = new ArrayList<>(component.getDependencies().size());
+      for (Component dependency : component.getDependencies()) {
+        Integer position = positions.get(dependency);
+        if (position != null) {
+          dependencies.add(position);
+        }
+      }
+      output.writeInt(dependencies.size());
+      for (int dependency : dependencies) {
+        output.writeInt(dependency);
+      }
+    }
+    output.flush();
+  }
+
+  public static StackState read(InputStream in) throws IOException {
+    DataInputStream input = new DataInputStream(in);
+    if (input.readInt() != MAGIC) {
+      throw corrupt("not a stack state snapshot");
+    }
+    int version = input.readInt();
+    if (version != VERSION) {
+      throw corrupt("unsupported version " + version);
+    }
+    String[] names = new String[count(input.readInt())];
+    for (int index = 0; index < names.length; index++) {
+      int length = input.readInt();
+      if (length != MISSING_NAME) {
+        byte[] bytes = new byte[count(length)];
+        input.readFully(bytes);
+        names[index] = new String(bytes, StandardCharsets.UTF_8);
+      }
+    }
+
+    int componentCount = count(input.readInt());
+    List<Component> components = new ArrayList<>(componentCount);
+    int[] dependencyOffsets = new int[componentCount + 1];
+    int[] dependencies = new int[Math.min(componentCount, 1 << 16)];
+    for (int position = 0; position < componentCount; position++) {
+      String id = name(names, input.readInt());
+      OwnState ownState = OwnState.of(state(input.readByte()));
+      DerivedState derivedState = DerivedState.of(state(input.readByte()));
+      CheckedState.Builder checkedState = CheckedState.builder();
+      for (int checks = count(input.readInt()); checks > 0; checks--) {
+        checkedState.and(name(names, input.readInt()), state(input.readByte()));
+      }
+      int dependencyCount = count(input.readInt());
+      int offset = dependencyOffsets[position];
+      if (offset + dependencyCount > dependencies.length) {
+        dependencies = Arrays.copyOf(dependencies, Math.max(offset + dependencyCount, dependencies.length * 2));
+      }
+      for (int dependency = 0; dependency < dependencyCount; dependency++) {
+        int index = input.readInt();
+        if (index < 0 || index >= componentCount) {
+          throw corrupt("unknown component " + index);
+        }
+        dependencies[offset + dependency] = index;
+      }
+      dependencyOffsets[position + 1] = offset + dependencyCount;
+      components.add(Component.builder()
+          .id(id)
+          .checkedState(checkedState.build())
+          .ownState(ownState)
+          .derivedState(derivedState)
+          .dependencies(new HashSet<>())
+          .dependents(new HashSet<>())
+          .build());
+    }
+    for (int position = 0; position < componentCount; position++) {
+      Component component = components.get(position);
+      for (int edge = dependencyOffsets[position]; edge < dependencyOffsets[position + 1]; edge++) {
+        component.addDependencyOn(components.get(dependencies[edge]));
+      }
+    }
+    return StackState.withComponents(components);
+  }
+
+  private static void index(String name, Map<String, Integer> nameIndexes, List<String> names) {
+    if (nameIndexes.putIfAbsent(name, names.size()) == null) {
+      names.add(name);
+    }
+  }
+
+  private static int count(int count) {
+    if (count < 0) {
+      throw corrupt("negative count");
+    }
+    return count;
+  }
+
+  private static String name(String[] names, int index) {
+    if (index < 0 || index >= names.length) {
+      throw corrupt("unknown name " + index);
+    }
+    return names[index];
+  }
+
+  private static StateValue state(byte ordinal) {
+    if (ordinal < 0 || ordinal >= STATES.length) {
+      throw corrupt("unknown state " + ordinal);
+    }
+    return STATES[ordinal];
+  }
+
+  private static IllegalArgumentException corrupt(String reason) {
+    return new IllegalArgumentException("Stack state snapshot is corrupt: " + reason);
+  }
+}
@@ -0,0 +1,70 @@
+package stackstate.io.sort;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+
+/**
+ * Reads back a run written by {@link EventRunWriter}.
+ */
+class EventRunReader implements Closeable {
+
+  private static final StateValue[] STATES = StateValue.values();
+
+  private final DataInputStream input;
+  private final List<String> names = new ArrayList<>();
+
+  EventRunReader(Path file, int bufferSize) throws IOException {
+    this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+    names.add(null);
+  }
+
+  /**
+   * @return the next event of the run, or null once the run is over
+   */
+  Event read() throws IOException {
+    long timestamp;
+    try {
+      timestamp = input.readLong();
+    } catch (EOFException e) {
+      return null;
+    }
+    String component = readName();
+    String checkState = readName();
+    return Event.of(timestamp, component, checkState, STATES[input.readByte()]);
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  private String readName() throws IOException {
+    int index = readVarInt();
+    if (index == 0) {
+      String name = input.readUTF();
+      names.add(name);
+      return name;
+    }
+    return names.get(index - 1);
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int next = input.readUnsignedByte();
+      value |= (next & 0x7F) << shift;
+      if ((next & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package stackstate.io.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import stackstate.domain.event.Event;
+
+/**
+ * Writes a run of events in a compact binary form: the timestamp, then the component and check
+ * names, each written out the first time it shows up in the run and referred to by index after
+ * that, then the state. A missing name is always known, as the first index.
+ */
+class EventRunWriter implements Closeable {
+
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private final DataOutputStream output;
+  private final Map<String, Integer> names = new HashMap<>();
+
+  EventRunWriter(Path file) throws IOException {
+    this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    names.put(null, 0);
+  }
+
+  void write(Event event) throws IOException {
+    output.writeLong(event.getTimestamp());
+    writeName(event.getComponent());
+    writeName(event.getCheckState());
+    output.writeByte(event.getState().ordinal());
+  }
+
+  @Override
+  public void close() throws IOException {
+    output.close();
+  }
+
+  private void writeName(String name) throws IOException {
+    Integer index = names.get(name);
+    if (index == null) {
+      writeVarInt(0);
+      output.writeUTF(name);
+      names.put(name, names.size());
+    } else {
+      writeVarInt(index + 1);
+    }
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+}
@@ -0,0 +1,218 @@
+package stackstate.io.sort;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import stackstate.domain.event.Event;
+
+/**
+ * Puts events in timestamp order while holding at most {@code runSize} of them in memory: sorted runs
+ * are spilled to temporary files in the directory given, then merged back, at most
+ * {@code maxOpenRuns} at a time. Events with the same timestamp keep their original order, as with
+ * {@link Stream#sorted()}.
+ *
+ * <p>Closing the sorted stream closes the given one and deletes the temporary files.
+ */
+public class ExternalEventSorter {
+
+  static final int DEFAULT_MAX_OPEN_RUNS = 256;
+
+  private final int runSize;
+  private final int maxOpenRuns;
+  private final Path directory;
+
+  public ExternalEventSorter(int runSize, Path directory) {
+    this(runSize, DEFAULT_MAX_OPEN_RUNS, directory);
+  }
+
+  ExternalEventSorter(int runSize, int maxOpenRuns, Path directory) {
+    if (runSize < 1) {
+      throw new IllegalArgumentException("Run size must be positive");
+    }
+    if (maxOpenRuns < 2) {
+      throw new IllegalArgumentException("At least two runs must be merged at a time");
+    }
+    this.runSize = runSize;
+    this.maxOpenRuns = maxOpenRuns;
+    this.directory = directory;
+  }
+
+  public static ExternalEventSorter withRunSize(int runSize) {
+    return new ExternalEventSorter(runSize, Paths.get(System.getProperty("java.io.tmpdir")));
+  }
+
+  public Stream<Event> sort(Stream<Event> events) {
+    List<Path> runs = new ArrayList<>();
+    List<Event> run = new ArrayList<>(Math.min(runSize, 1 << 16));
+    try {
+      Iterator<Event> iterator = events.iterator();
+      while (iterator.hasNext()) {
+        run.add(iterator.next());
+        if (run.size() == runSize) {
+          runs.add(spill(run));
+          run.clear();
+        }
+      }
+      run.sort(null);
+      if (runs.isEmpty()) {
+        return run.stream().onClose(events::close);
+      }
+      while (runs.size() > maxOpenRuns) {
+        runs = mergePass(runs);
+      }
+      RunMerge merge = new RunMerge(runs, run, bufferSizeFor(runs.size()));
+      List<Path> spilled = runs;
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED | Spliterator.NONNULL), false)
+          .onClose(() -> {
+            merge.close();
+            deleteAll(spilled);
+            events.close();
+          });
+    } catch (IOException e) {
+      deleteAll(runs);
+      throw ioFailure(e);
+    } catch (RuntimeException e) {
+      deleteAll(runs);
+      throw e;
+    }
+  }
+
+  private Path spill(List<Event> run) throws IOException {
+    run.sort(null);
+    Path file = Files.createTempFile(directory, "events-", ".run");
+    try (EventRunWriter writer = new EventRunWriter(file)) {
+      for (Event event : run) {
+        writer.write(event);
+      }
+    }
+    return file;
+  }
+
+  /**
+   * Merges consecutive groups of runs into longer runs, so that later runs still hold later events
+   * with the same timestamp.
+   */
+  private List<Path> mergePass(List<Path> runs) throws IOException {
+    List<Path> merged = new ArrayList<>();
+    for (int from = 0; from < runs.size(); from += maxOpenRuns) {
+      List<Path> group = runs.subList(from, Math.min(runs.size(), from + maxOpenRuns));
+      Path file = Files.createTempFile(directory, "events-", ".run");
+      try (RunMerge merge = new RunMerge(group, List.of(), bufferSizeFor(group.size()));
+          EventRunWriter writer = new EventRunWriter(file)) {
+        while (merge.hasNext()) {
+          writer.write(merge.next());
+        }
+      }
+      deleteAll(group);
+      merged.add(file);
+    }
+    return merged;
+  }
+
+  private static int bufferSizeFor(int runs) {
+    return Math.max(1 << 12, EventRunWriter.BUFFER_SIZE / Math.max(1, runs / 16));
+  }
+
+  private static IllegalArgumentException ioFailure(IOException e) {
+    return new IllegalArgumentException("I/O error while sorting events: " + e.getMessage());
+  }
+
+  private static void deleteAll(List<Path> files) {
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        file.toFile().deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * K-way merge of spilled runs and a last run still in memory, which comes after all the others.
+   */
+  private static class RunMerge implements Iterator<Event>, AutoCloseable {
+
+    private final List<EventRunReader> readers = new ArrayList<>();
+    private final Iterator<Event> lastRun;
+    private final PriorityQueue<Head> heads = new PriorityQueue<>();
+
+    private RunMerge(List<Path> runs, List<Event> lastRun, int bufferSize) throws IOException {
+      this.lastRun = lastRun.iterator();
+      try {
+        for (Path run : runs) {
+          readers.add(new EventRunReader(run, bufferSize));
+        }
+        for (int run = 0; run <= readers.size(); run++) {
+          advance(run);
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public Event next() {
+      Head head = heads.poll();
+      if (head == null) {
+        throw new NoSuchElementException();
+      }
+      try {
+        advance(head.run);
+      } catch (IOException e) {
+        throw ioFailure(e);
+      }
+      return head.event;
+    }
+
+    @Override
+    public void close() {
+      for (EventRunReader reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          // nothing left to read from it anyway
+        }
+      }
+    }
+
+    private void advance(int run) throws IOException {
+      Event event = run < readers.size() ? readers.get(run).read() : (lastRun.hasNext() ? lastRun.next() : null);
+      if (event != null) {
+        heads.add(new Head(event, run));
+      }
+    }
+  }
+
+  private static class Head implements Comparable<Head> {
+
+    private final Event event;
+    private final int run;
+
+    private Head(Event event, int run) {
+      this.event = event;
+      this.run = run;
+    }
+
+    @Override
+    public int compareTo(Head other) {
+      int byTimestamp = event.compareTo(other.event);
+      return byTimestamp != 0 ? byTimestamp : Integer.compare(run, other.run);
+    }
+  }
+}
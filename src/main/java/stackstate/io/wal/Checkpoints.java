@@ -0,0 +1,220 @@
+package stackstate.io.wal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.state.CheckedState;
+import stackstate.domain.state.DerivedState;
+import stackstate.domain.state.OwnState;
+import stackstate.io.snapshot.StackStateSnapshot;
+
+/**
+ * Checkpoints of a {@link DurableStackState}, named after the sequence number of the last event they
+ * hold: a full {@link StackStateSnapshot} now and then, and in between deltas with only the
+ * components whose state changed since the previous checkpoint, big endian throughout:
+ * <pre>
+ * delta    int magic, int version, int component count, then per component: string id,
+ *          byte own state, byte derived state, int check count, per check: string name, byte state
+ * string   int byte length (-1 when missing), UTF-8 bytes
+ * </pre>
+ * States are written as state value ordinals. Each file is written aside and moved in place, so a
+ * checkpoint is either complete or absent.
+ */
+class Checkpoints {
+
+  private static final String PREFIX = "checkpoint-";
+  private static final String FULL = ".full";
+  private static final String DELTA = ".delta";
+  private static final String PARTIAL = ".partial";
+  private static final int MAGIC = 0x53534443;
+  private static final int VERSION = 1;
+  private static final int MISSING_NAME = -1;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final StateValue[] STATES = StateValue.values();
+
+  private final Path directory;
+
+  Checkpoints(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Loads the latest full checkpoint and applies the deltas written after it.
+   */
+  Optional<Loaded> load() throws IOException {
+    List<Path> files = checkpoints();
+    Optional<Path> full = files.stream()
+        .filter(file -> file.getFileName().toString().endsWith(FULL))
+        .reduce((first, second) -> second);
+    if (!full.isPresent()) {
+      return Optional.empty();
+    }
+    StackState stackState;
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(full.get()), BUFFER_SIZE)) {
+      stackState = StackStateSnapshot.read(in);
+    }
+    long sequence = sequenceOf(full.get());
+    int deltas = 0;
+    for (Path file : files) {
+      if (file.getFileName().toString().endsWith(DELTA) && sequenceOf(file) > sequence) {
+        restoreDelta(stackState, file);
+        sequence = sequenceOf(file);
+        deltas++;
+      }
+    }
+    return Optional.of(new Loaded(stackState, sequence, deltas));
+  }
+
+  /**
+   * Writes the whole stack state and deletes the checkpoints it makes useless.
+   */
+  void writeFull(StackState stackState, long sequence) throws IOException {
+    write(path(sequence, FULL), out -> StackStateSnapshot.write(stackState, out));
+    for (Path file : checkpoints()) {
+      if (sequenceOf(file) < sequence) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  void writeDelta(Collection<Component> changed, long sequence) throws IOException {
+    write(path(sequence, DELTA), out -> {
+      DataOutputStream output = new DataOutputStream(out);
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(changed.size());
+      for (Component component : changed) {
+        writeString(output, component.getId());
+        output.writeByte(component.getOwnState().value().ordinal());
+        output.writeByte(component.getDerivedState().value().ordinal());
+        Map<String, StateValue> checks = component.getCheckStates();
+        output.writeInt(checks.size());
+        for (Map.Entry<String, StateValue> check : checks.entrySet()) {
+          writeString(output, check.getKey());
+          output.writeByte(check.getValue().ordinal());
+        }
+      }
+      output.flush();
+    });
+  }
+
+  private void restoreDelta(StackState stackState, Path file) throws IOException {
+    try (DataInputStream input = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        throw corrupt(file);
+      }
+      for (int components = input.readInt(); components > 0; components--) {
+        String id = readString(input);
+        OwnState ownState = OwnState.of(state(input.readByte(), file));
+        DerivedState derivedState = DerivedState.of(state(input.readByte(), file));
+        CheckedState.Builder checkedState = CheckedState.builder();
+        for (int checks = input.readInt(); checks > 0; checks--) {
+          checkedState.and(readString(input), state(input.readByte(), file));
+        }
+        Component component = stackState.getComponent(id).orElseThrow(() -> corrupt(file));
+        component.restore(checkedState.build(), ownState, derivedState);
+      }
+    }
+  }
+
+  private void write(Path file, Content content) throws IOException {
+    Path partial = file.resolveSibling(file.getFileName() + PARTIAL);
+    try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+      content.writeTo(out);
+      out.flush();
+      channel.force(false);
+    }
+    Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private List<Path> checkpoints() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(FULL)
+              || file.getFileName().toString().endsWith(DELTA))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private Path path(long sequence, String kind) {
+    return directory.resolve(String.format("%s%020d%s", PREFIX, sequence, kind));
+  }
+
+  private static long sequenceOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.lastIndexOf('.')));
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(MISSING_NAME);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length == MISSING_NAME) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static StateValue state(byte ordinal, Path file) {
+    if (ordinal < 0 || ordinal >= STATES.length) {
+      throw corrupt(file);
+    }
+    return STATES[ordinal];
+  }
+
+  private static IllegalArgumentException corrupt(Path file) {
+    return new IllegalArgumentException("Checkpoint " + file.getFileName() + " is corrupt");
+  }
+
+  @Getter
+  @AllArgsConstructor
+  static class Loaded {
+
+    private final StackState stackState;
+    private final long sequence;
+    private final int deltas;
+  }
+
+  @FunctionalInterface
+  private interface Content {
+
+    void writeTo(OutputStream out) throws IOException;
+  }
+}
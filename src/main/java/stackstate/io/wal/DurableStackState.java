@@ -0,0 +1,175 @@
+package stackstate.io.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.event.Event;
+
+/**
+ * A stack state that survives restarts. Every applied event is appended to a {@link WriteAheadLog},
+ * committed in groups of {@code commitInterval} events, and every {@code checkpointInterval} events
+ * the components whose state changed since the last checkpoint are written to a checkpoint (see
+ * {@link Checkpoints}). Once a checkpoint is written the log segments it covers are deleted.
+ *
+ * <p>Opening a directory that already holds a checkpoint loads it and replays the events logged
+ * after it, so restarting takes time in proportion to the tail of the log rather than to the whole
+ * event history. Only an empty directory asks for the initial state.
+ *
+ * <p>Events are applied in the order they are given, on one thread at a time.
+ */
+public class DurableStackState implements Closeable {
+
+  public static final int DEFAULT_COMMIT_INTERVAL = 1_000;
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 100_000;
+  private static final int MAX_DELTAS = 16;
+
+  private final StackState stackState;
+  private final Checkpoints checkpoints;
+  private final WriteAheadLog log;
+  private final int commitInterval;
+  private final int checkpointInterval;
+  private final Set<Component> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+  private int deltas;
+  private int uncommitted;
+  private int sinceCheckpoint;
+
+  private DurableStackState(Path directory, Supplier<StackState> initialState, int commitInterval,
+      int checkpointInterval) throws IOException {
+    if (commitInterval < 1 || checkpointInterval < 1) {
+      throw new IllegalArgumentException("Commit and checkpoint intervals must be positive");
+    }
+    this.commitInterval = commitInterval;
+    this.checkpointInterval = checkpointInterval;
+    Files.createDirectories(directory);
+    this.checkpoints = new Checkpoints(directory);
+    Optional<Checkpoints.Loaded> loaded = checkpoints.load();
+    long sequence;
+    if (loaded.isPresent()) {
+      this.stackState = loaded.get().getStackState();
+      this.deltas = loaded.get().getDeltas();
+      sequence = loaded.get().getSequence();
+    } else {
+      this.stackState = initialState.get();
+      sequence = 0;
+      checkpoints.writeFull(stackState, sequence);
+    }
+    stackState.onStateChange(changed::add);
+    sequence = WriteAheadLog.replay(directory, sequence, this::applyToStackState);
+    this.log = WriteAheadLog.open(directory, sequence);
+  }
+
+  public static DurableStackState open(Path directory, Supplier<StackState> initialState) {
+    return open(directory, initialState, DEFAULT_COMMIT_INTERVAL, DEFAULT_CHECKPOINT_INTERVAL);
+  }
+
+  public static DurableStackState open(Path directory, Supplier<StackState> initialState, int commitInterval,
+      int checkpointInterval) {
+    try {
+      return new DurableStackState(directory, initialState, commitInterval, checkpointInterval);
+    } catch (IOException e) {
+      throw failure(e);
+    }
+  }
+
+  public StackState getStackState() {
+    return stackState;
+  }
+
+  /**
+   * @return the sequence number of the last event applied
+   */
+  public long lastSequence() {
+    return log.lastSequence();
+  }
+
+  /**
+   * Logs and applies the event, if the stack state has the component it names.
+   */
+  public void apply(Event event) {
+    Optional<Component> component = stackState.getComponent(event.getComponentSymbol());
+    if (!component.isPresent()) {
+      return;
+    }
+    try {
+      log.append(event);
+      component.get().apply(event);
+      sinceCheckpoint++;
+      if (++uncommitted >= commitInterval) {
+        commit();
+      }
+      if (sinceCheckpoint >= checkpointInterval) {
+        checkpoint();
+      }
+    } catch (IOException e) {
+      throw failure(e);
+    }
+  }
+
+  /**
+   * Makes every event applied so far durable.
+   */
+  public void commit() {
+    try {
+      log.commit();
+      uncommitted = 0;
+    } catch (IOException e) {
+      throw failure(e);
+    }
+  }
+
+  /**
+   * Writes the changes since the previous checkpoint, as a delta or, when the deltas pile up or most
+   * components changed, as a full snapshot.
+   */
+  public void checkpoint() {
+    if (sinceCheckpoint == 0) {
+      return;
+    }
+    try {
+      long sequence = log.lastSequence();
+      if (deltas >= MAX_DELTAS || changed.size() * 2 >= stackState.size()) {
+        checkpoints.writeFull(stackState, sequence);
+        deltas = 0;
+      } else {
+        checkpoints.writeDelta(changed, sequence);
+        deltas++;
+      }
+      changed.clear();
+      sinceCheckpoint = 0;
+      log.roll();
+      uncommitted = 0;
+    } catch (IOException e) {
+      throw failure(e);
+    }
+  }
+
+  /**
+   * Checkpoints, so that the next start has no log to replay.
+   */
+  @Override
+  public void close() {
+    try {
+      checkpoint();
+      log.close();
+    } catch (IOException e) {
+      throw failure(e);
+    }
+  }
+
+  private void applyToStackState(Event event) {
+    stackState.getComponent(event.getComponentSymbol()).ifPresent(component -> component.apply(event));
+    sinceCheckpoint++;
+  }
+
+  private static IllegalArgumentException failure(IOException e) {
+    return new IllegalArgumentException("I/O error in the durable stack state: " + e.getMessage());
+  }
+}
@@ -0,0 +1,257 @@
+package stackstate.io.wal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+
+/**
+ * Append-only log of the events applied to a {@link DurableStackState}, big endian throughout. It is
+ * split in segments named after the sequence number their first record follows:
+ * <pre>
+ * record   int payload length, int CRC32 of the payload, then the payload: long sequence number,
+ *          long timestamp, byte state value ordinal, int component byte length, UTF-8 bytes,
+ *          int check byte length (-1 when missing), UTF-8 bytes
+ * </pre>
+ * Appended records are buffered and only durable once committed. A commit writes and forces
+ * everything appended since the previous one with a single sync, so one sync covers a whole group
+ * of events, and concurrent committers find their records already forced by whoever went first.
+ *
+ * <p>A crash can leave a torn record at the end of the last segment: replay stops there, and
+ * appending carries on in a new segment.
+ */
+public class WriteAheadLog implements Closeable {
+
+  private static final String PREFIX = "wal-";
+  private static final String SUFFIX = ".log";
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int FIXED_PAYLOAD_SIZE = 2 * Long.BYTES + 1 + 2 * Integer.BYTES;
+  private static final int MAX_PAYLOAD_SIZE = 1 << 24;
+  private static final int MISSING_NAME = -1;
+  private static final StateValue[] STATES = StateValue.values();
+
+  private final Path directory;
+  private final CRC32 checksum = new CRC32();
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private FileChannel segment;
+  private long segmentStart;
+  private long lastSequence;
+  private long committedSequence;
+
+  private WriteAheadLog(Path directory, long lastSequence) throws IOException {
+    this.directory = directory;
+    this.lastSequence = lastSequence;
+    this.committedSequence = lastSequence;
+    this.segment = openSegment(lastSequence);
+  }
+
+  /**
+   * Starts a new segment after the given sequence number. Existing segments are left alone until the
+   * next {@link #roll()}.
+   */
+  public static WriteAheadLog open(Path directory, long lastSequence) throws IOException {
+    return new WriteAheadLog(directory, lastSequence);
+  }
+
+  /**
+   * Hands the events logged after the given sequence number to the consumer, in order.
+   *
+   * @return the sequence number of the last event handed over
+   */
+  public static long replay(Path directory, long afterSequence, Consumer<Event> consumer) throws IOException {
+    long sequence = afterSequence;
+    for (Path segment : segments(directory)) {
+      try (DataInputStream input = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(segment), BUFFER_SIZE))) {
+        sequence = replay(input, sequence, consumer);
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * @return the sequence number given to the event
+   */
+  public synchronized long append(Event event) throws IOException {
+    byte[] component = bytesOf(event.getComponent());
+    byte[] check = bytesOf(event.getCheckState());
+    int payloadSize = FIXED_PAYLOAD_SIZE + length(component) + length(check);
+    if (payloadSize > MAX_PAYLOAD_SIZE) {
+      throw new IllegalArgumentException("Event is too large for the write-ahead log: " + event);
+    }
+    ensureRoom(HEADER_SIZE + payloadSize);
+    int start = buffer.position();
+    buffer.position(start + HEADER_SIZE);
+    buffer.putLong(++lastSequence);
+    buffer.putLong(event.getTimestamp());
+    buffer.put((byte) event.getState().ordinal());
+    putName(component);
+    putName(check);
+    checksum.reset();
+    checksum.update(buffer.array(), start + HEADER_SIZE, payloadSize);
+    buffer.putInt(start, payloadSize);
+    buffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+    return lastSequence;
+  }
+
+  /**
+   * Makes every event appended so far durable.
+   */
+  public synchronized void commit() throws IOException {
+    if (committedSequence == lastSequence) {
+      return;
+    }
+    flush();
+    segment.force(false);
+    committedSequence = lastSequence;
+  }
+
+  public synchronized long lastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Commits, carries on in a new segment and deletes the older ones, once a checkpoint holds every
+   * event appended so far.
+   */
+  public synchronized void roll() throws IOException {
+    commit();
+    if (segmentStart != lastSequence) {
+      segment.close();
+      segment = openSegment(lastSequence);
+    }
+    Path current = segmentPath(segmentStart);
+    for (Path old : segments(directory)) {
+      if (!old.equals(current)) {
+        Files.delete(old);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      commit();
+    } finally {
+      segment.close();
+    }
+  }
+
+  private FileChannel openSegment(long start) throws IOException {
+    segmentStart = start;
+    return FileChannel.open(segmentPath(start), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  private static long replay(DataInputStream input, long afterSequence, Consumer<Event> consumer)
+      throws IOException {
+    long sequence = afterSequence;
+    CRC32 checksum = new CRC32();
+    while (true) {
+      byte[] payload;
+      try {
+        int payloadSize = input.readInt();
+        int expectedChecksum = input.readInt();
+        if (payloadSize < FIXED_PAYLOAD_SIZE || payloadSize > MAX_PAYLOAD_SIZE) {
+          return sequence;
+        }
+        payload = new byte[payloadSize];
+        input.readFully(payload);
+        checksum.reset();
+        checksum.update(payload, 0, payloadSize);
+        if ((int) checksum.getValue() != expectedChecksum) {
+          return sequence;
+        }
+      } catch (EOFException e) {
+        return sequence;
+      }
+      ByteBuffer record = ByteBuffer.wrap(payload);
+      long recordSequence = record.getLong();
+      if (recordSequence <= sequence) {
+        continue;
+      }
+      if (recordSequence != sequence + 1) {
+        throw new IllegalArgumentException("Write-ahead log is corrupt: event " + (sequence + 1) + " is missing");
+      }
+      long timestamp = record.getLong();
+      StateValue state = STATES[record.get()];
+      String component = getName(record);
+      String check = getName(record);
+      consumer.accept(Event.of(timestamp, component, check, state));
+      sequence = recordSequence;
+    }
+  }
+
+  private void putName(byte[] name) {
+    if (name == null) {
+      buffer.putInt(MISSING_NAME);
+    } else {
+      buffer.putInt(name.length);
+      buffer.put(name);
+    }
+  }
+
+  private static String getName(ByteBuffer record) {
+    int length = record.getInt();
+    if (length == MISSING_NAME) {
+      return null;
+    }
+    String name = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+    record.position(record.position() + length);
+    return name;
+  }
+
+  private void ensureRoom(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush();
+    }
+    if (buffer.capacity() < bytes) {
+      buffer = ByteBuffer.allocate(bytes);
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      segment.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private Path segmentPath(long start) {
+    return directory.resolve(String.format("%s%020d%s", PREFIX, start, SUFFIX));
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static byte[] bytesOf(String name) {
+    return name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int length(byte[] name) {
+    return name == null ? 0 : name.length;
+  }
+}
@@ -0,0 +1,35 @@
+package stackstate.io.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import stackstate.StackState;
+import stackstate.io.snapshot.StackStateSnapshot;
+
+/**
+ * Writes the stack state as a binary snapshot file, see {@link StackStateSnapshot}.
+ */
+public class BinarySnapshotWriter implements StackStateWriter {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final StackState stackState;
+  private final Path snapshotFile;
+
+  public BinarySnapshotWriter(StackState stackState, Path snapshotFile) {
+    this.stackState = stackState;
+    this.snapshotFile = snapshotFile;
+  }
+
+  @Override
+  public void write() {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(snapshotFile), BUFFER_SIZE)) {
+      StackStateSnapshot.write(stackState, out);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("I/O error: " + e.getMessage());
+    }
+  }
+
+}
@@ -1,9 +1,12 @@
 package stackstate.io.writer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import java.io.IOException;
+import java.io.StringWriter;
 import lombok.AllArgsConstructor;
 import stackstate.StackState;
+import stackstate.io.codec.DtoCodec;
 import stackstate.io.dto.state.StackStateDto;
 import stackstate.io.mapper.StackStateMapper;
 
@@ -13,15 +16,21 @@ public class ConsoleWriter implements StackStateWriter {
   private final StackStateMapper stackStateMapper = new StackStateMapper();
 
   private final StackState stackState;
-  private final ObjectMapper objectMapper;
+  private final DtoCodec codec;
 
   @Override
   public void write() {
     try {
       StackStateDto stackStateDto = stackStateMapper.map(stackState);
-      String result = objectMapper.writeValueAsString(stackStateDto);
+      StringWriter result = new StringWriter();
+      try (JsonGenerator generator = codec.getFactory().createGenerator(result)) {
+        if (codec.isIndentOutput()) {
+          generator.setPrettyPrinter(new DefaultPrettyPrinter());
+        }
+        codec.writeValue(generator, stackStateDto);
+      }
       System.out.println(result);
-    } catch (JsonProcessingException e) {
+    } catch (IOException e) {
       e.printStackTrace();
     }
   }
@@ -0,0 +1,67 @@
+package stackstate.io.writer;
+
+import static stackstate.io.writer.StreamingConsoleWriter.toStringValue;
+import static stackstate.io.writer.StreamingConsoleWriter.writeCheckStates;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import stackstate.domain.Component;
+import stackstate.domain.StateChanges;
+import stackstate.domain.StateChanges.ComponentChange;
+import stackstate.io.codec.DtoCodec;
+
+/**
+ * Writes only the components that changed, with their current states as {@link StreamingConsoleWriter}
+ * writes them and their states before the changes under {@code "previous"}:
+ * <pre>
+ * {"changes": [{"id": ..., "own_state": ..., "derived_state": ..., "check_states": {...},
+ *               "previous": {"own_state": ..., "derived_state": ..., "check_states": {...}}}]}
+ * </pre>
+ */
+public class DeltaConsoleWriter implements StackStateWriter {
+
+  private final StateChanges changes;
+  private final DtoCodec codec;
+  private final OutputStream out;
+
+  public DeltaConsoleWriter(StateChanges changes, DtoCodec codec) {
+    this(changes, codec, System.out);
+  }
+
+  public DeltaConsoleWriter(StateChanges changes, DtoCodec codec, OutputStream out) {
+    this.changes = changes;
+    this.codec = codec;
+    this.out = out;
+  }
+
+  @Override
+  public void write() {
+    List<ComponentChange> changed = changes.changes();
+    StreamingConsoleWriter.writeDocument(codec, out, generator -> {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("changes");
+      for (ComponentChange change : changed) {
+        writeChange(generator, change);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    });
+  }
+
+  private void writeChange(JsonGenerator generator, ComponentChange change) throws IOException {
+    Component component = change.getComponent();
+    generator.writeStartObject();
+    generator.writeStringField("id", component.getId());
+    generator.writeStringField("own_state", toStringValue(component.getOwnState().value()));
+    generator.writeStringField("derived_state", toStringValue(component.getDerivedState().value()));
+    writeCheckStates(generator, component.getCheckStates());
+    generator.writeObjectFieldStart("previous");
+    generator.writeStringField("own_state", toStringValue(change.getPreviousOwnState().value()));
+    generator.writeStringField("derived_state", toStringValue(change.getPreviousDerivedState().value()));
+    writeCheckStates(generator, change.getPreviousCheckedState().getValues());
+    generator.writeEndObject();
+    generator.writeEndObject();
+  }
+}
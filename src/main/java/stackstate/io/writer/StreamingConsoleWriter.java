@@ -0,0 +1,132 @@
+package stackstate.io.writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.io.codec.DtoCodec;
+
+/**
+ * Writes the same document as {@link ConsoleWriter}, but straight from the components to a
+ * {@link JsonGenerator}, one component at a time, without building the DTO tree or the whole
+ * document as a String. Check states are written sorted by name and dependencies sorted by id, as
+ * {@link stackstate.io.mapper.StackStateMapper} lays them out for {@link ConsoleWriter}.
+ */
+public class StreamingConsoleWriter implements StackStateWriter {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final Comparator<String> BY_NAME = Comparator.nullsFirst(Comparator.naturalOrder());
+
+  private final StackState stackState;
+  private final DtoCodec codec;
+  private final OutputStream out;
+
+  public StreamingConsoleWriter(StackState stackState, DtoCodec codec) {
+    this(stackState, codec, System.out);
+  }
+
+  public StreamingConsoleWriter(StackState stackState, DtoCodec codec, OutputStream out) {
+    this.stackState = stackState;
+    this.codec = codec;
+    this.out = out;
+  }
+
+  @Override
+  public void write() {
+    writeDocument(codec, out, this::writeDocument);
+  }
+
+  /**
+   * Writes one document, followed by a line separator, the way the console writers do.
+   */
+  static void writeDocument(DtoCodec codec, OutputStream out, DocumentContent content) {
+    BufferedOutputStream buffer = new BufferedOutputStream(out, BUFFER_SIZE);
+    try {
+      JsonGenerator generator = codec.getFactory()
+          .createGenerator(buffer)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      if (codec.isIndentOutput()) {
+        generator.setPrettyPrinter(new DefaultPrettyPrinter());
+      }
+      content.writeTo(generator);
+      generator.close();
+      buffer.write(System.lineSeparator().getBytes(StandardCharsets.UTF_8));
+      buffer.flush();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private void writeDocument(JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    generator.writeObjectFieldStart("graph");
+    generator.writeArrayFieldStart("components");
+    for (Component component : (Iterable<Component>) stackState.stream()::iterator) {
+      writeComponent(generator, component);
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.writeEndObject();
+  }
+
+  private void writeComponent(JsonGenerator generator, Component component) throws IOException {
+    generator.writeStartObject();
+    if (component.getId() != null) {
+      generator.writeStringField("id", component.getId());
+    }
+    generator.writeStringField("own_state", toStringValue(component.getOwnState().value()));
+    generator.writeStringField("derived_state", toStringValue(component.getDerivedState().value()));
+    writeCheckStates(generator, component.getCheckStates());
+    writeComponentsIds(generator, "depends_on", component.getDependencies());
+    writeComponentsIds(generator, "dependency_of", component.getDependents());
+    generator.writeEndObject();
+  }
+
+  static void writeCheckStates(JsonGenerator generator, Map<String, StateValue> checkStates) throws IOException {
+    generator.writeObjectFieldStart("check_states");
+    List<Entry<String, StateValue>> entries = new ArrayList<>(checkStates.entrySet());
+    entries.sort(Entry.comparingByKey(BY_NAME));
+    for (Entry<String, StateValue> checkState : entries) {
+      generator.writeStringField(checkState.getKey(), toStringValue(checkState.getValue()));
+    }
+    generator.writeEndObject();
+  }
+
+  private void writeComponentsIds(JsonGenerator generator, String field, Set<Component> components)
+      throws IOException {
+    if (components == null || components.isEmpty()) {
+      return;
+    }
+    List<String> ids = new ArrayList<>(components.size());
+    for (Component component : components) {
+      ids.add(component.getId());
+    }
+    ids.sort(BY_NAME);
+    generator.writeArrayFieldStart(field);
+    for (String id : ids) {
+      generator.writeString(id);
+    }
+    generator.writeEndArray();
+  }
+
+  static String toStringValue(StateValue state) {
+    return state.toString().toLowerCase();
+  }
+
+  @FunctionalInterface
+  interface DocumentContent {
+
+    void writeTo(JsonGenerator generator) throws IOException;
+  }
+}
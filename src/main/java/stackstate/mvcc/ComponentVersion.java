@@ -0,0 +1,52 @@
+package stackstate.mvcc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+
+/**
+ * The states of a component at one version of a {@link VersionedStackState}, never modified once
+ * published, along with the ids of its dependencies and dependents as of its last state change.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class ComponentVersion {
+
+  private final String id;
+  private final Map<String, StateValue> checkStates;
+  private final StateValue ownState;
+  private final StateValue derivedState;
+  private final List<String> dependencies;
+  private final List<String> dependents;
+
+  private ComponentVersion(Component component) {
+    this.id = component.getId();
+    this.checkStates = Collections.unmodifiableMap(new HashMap<>(component.getCheckStates()));
+    this.ownState = component.getOwnState().value();
+    this.derivedState = component.getDerivedState().value();
+    this.dependencies = ids(component.getDependencies());
+    this.dependents = ids(component.getDependents());
+  }
+
+  static ComponentVersion of(Component component) {
+    return new ComponentVersion(component);
+  }
+
+  private static List<String> ids(Set<Component> components) {
+    if (components.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> ids = new ArrayList<>(components.size());
+    components.forEach(component -> ids.add(component.getId()));
+    return Collections.unmodifiableList(ids);
+  }
+}
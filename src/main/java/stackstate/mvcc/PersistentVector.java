@@ -0,0 +1,110 @@
+package stackstate.mvcc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable array of 32-way trie nodes. Setting or appending an element copies only the nodes on the
+ * path to it, about log32(size) arrays of 32 slots, and shares every other node with the vector it
+ * was derived from. Lookups go down the same path without any locking, so a vector can be read by
+ * any number of threads while newer ones are being derived from it.
+ */
+final class PersistentVector<T> {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+  private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH]);
+
+  private final int size;
+  private final int shift;
+  private final Object[] root;
+
+  private PersistentVector(int size, int shift, Object[] root) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> PersistentVector<T> empty() {
+    return (PersistentVector<T>) EMPTY;
+  }
+
+  /**
+   * Builds the trie bottom up, without the path copies of appending one element at a time.
+   */
+  static <T> PersistentVector<T> of(List<T> elements) {
+    if (elements.isEmpty()) {
+      return empty();
+    }
+    List<Object[]> level = new ArrayList<>();
+    for (int start = 0; start < elements.size(); start += WIDTH) {
+      level.add(elements.subList(start, Math.min(start + WIDTH, elements.size())).toArray(new Object[WIDTH]));
+    }
+    int shift = 0;
+    do {
+      List<Object[]> parents = new ArrayList<>();
+      for (int start = 0; start < level.size(); start += WIDTH) {
+        Object[] parent = new Object[WIDTH];
+        List<Object[]> children = level.subList(start, Math.min(start + WIDTH, level.size()));
+        for (int child = 0; child < children.size(); child++) {
+          parent[child] = children.get(child);
+        }
+        parents.add(parent);
+      }
+      level = parents;
+      shift += BITS;
+    } while (level.size() > 1);
+    return new PersistentVector<>(elements.size(), shift, level.get(0));
+  }
+
+  int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  T get(int index) {
+    checkIndex(index, size);
+    Object[] node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return (T) node[index & MASK];
+  }
+
+  PersistentVector<T> set(int index, T value) {
+    checkIndex(index, size);
+    return new PersistentVector<>(size, shift, set(root, shift, index, value));
+  }
+
+  PersistentVector<T> append(T value) {
+    if (size == capacity(shift)) {
+      Object[] newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      return new PersistentVector<>(size + 1, shift + BITS, set(newRoot, shift + BITS, size, value));
+    }
+    return new PersistentVector<>(size + 1, shift, set(root, shift, size, value));
+  }
+
+  private static Object[] set(Object[] node, int level, int index, Object value) {
+    Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+    if (level == 0) {
+      copy[index & MASK] = value;
+    } else {
+      int slot = (index >>> level) & MASK;
+      copy[slot] = set((Object[]) copy[slot], level - BITS, index, value);
+    }
+    return copy;
+  }
+
+  private static long capacity(int shift) {
+    return 1L << (shift + BITS);
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package stackstate.mvcc;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A consistent, immutable view of every component of a {@link VersionedStackState} as of one
+ * version. Safe to read from any thread, for as long as needed, while newer versions are published.
+ */
+public final class StackStateVersion {
+
+  private final long version;
+  private final PersistentVector<ComponentVersion> components;
+  private final Map<String, Integer> positions;
+
+  StackStateVersion(long version, PersistentVector<ComponentVersion> components, Map<String, Integer> positions) {
+    this.version = version;
+    this.components = components;
+    this.positions = positions;
+  }
+
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return components.size();
+  }
+
+  public Optional<ComponentVersion> getComponent(String componentId) {
+    Integer position = positions.get(componentId);
+    return position == null ? Optional.empty() : Optional.of(components.get(position));
+  }
+
+  public Stream<ComponentVersion> stream() {
+    return IntStream.range(0, components.size()).mapToObj(components::get);
+  }
+}
@@ -0,0 +1,122 @@
+package stackstate.mvcc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.event.Event;
+
+/**
+ * Publishes immutable {@link StackStateVersion}s of a stack state while a single writer keeps
+ * applying events to it. Readers on any thread take the {@link #current()} version and get a
+ * point-in-time view of every component, without locks and without waiting for the writer.
+ *
+ * <p>Versions share structure: publishing captures only the components whose states changed since
+ * the previous version and copies about log32(size) trie nodes for each of them, everything else is
+ * shared with the previous version. Components added to the stack state show up in the next
+ * version. Only the writer thread may apply events or publish.
+ */
+public class VersionedStackState {
+
+  private final StackState stackState;
+  private final Map<Component, Integer> positions = new IdentityHashMap<>();
+  private final List<Component> changed = new ArrayList<>();
+  private final Map<Component, Boolean> pending = new IdentityHashMap<>();
+  private Map<String, Integer> idPositions = new HashMap<>();
+  private PersistentVector<ComponentVersion> components = PersistentVector.empty();
+  private long scanned;
+  private volatile StackStateVersion current;
+
+  private VersionedStackState(StackState stackState) {
+    this.stackState = stackState;
+    stackState.onStateChange(this::markChanged);
+    publish();
+  }
+
+  public static VersionedStackState of(StackState stackState) {
+    return new VersionedStackState(stackState);
+  }
+
+  /**
+   * @return the latest published version, from any thread
+   */
+  public StackStateVersion current() {
+    return current;
+  }
+
+  /**
+   * Applies the event and publishes the resulting version.
+   */
+  public StackStateVersion apply(Event event) {
+    applyUnpublished(event);
+    return publish();
+  }
+
+  /**
+   * Applies the events in the given order and publishes a single version once they are all applied.
+   */
+  public StackStateVersion applyAll(Stream<Event> events) {
+    events.forEach(this::applyUnpublished);
+    return publish();
+  }
+
+  /**
+   * Publishes the changes made to the stack state since the previous version, if any.
+   */
+  public StackStateVersion publish() {
+    if (current != null && changed.isEmpty() && scanned == stackState.size()) {
+      return current;
+    }
+    PersistentVector<ComponentVersion> next = appendNewComponents(components);
+    for (Component component : changed) {
+      Integer position = positions.get(component);
+      if (position != null) {
+        next = next.set(position, ComponentVersion.of(component));
+      }
+    }
+    changed.clear();
+    pending.clear();
+    components = next;
+    current = new StackStateVersion(current == null ? 0 : current.version() + 1, next, idPositions);
+    return current;
+  }
+
+  private void applyUnpublished(Event event) {
+    stackState.getComponent(event.getComponentSymbol()).ifPresent(component -> component.apply(event));
+  }
+
+  private void markChanged(Component component) {
+    if (pending.put(component, Boolean.TRUE) == null) {
+      changed.add(component);
+    }
+  }
+
+  private PersistentVector<ComponentVersion> appendNewComponents(PersistentVector<ComponentVersion> vector) {
+    if (scanned == stackState.size()) {
+      return vector;
+    }
+    Map<String, Integer> newIdPositions = new HashMap<>(idPositions);
+    List<ComponentVersion> added = new ArrayList<>();
+    for (Component component : (Iterable<Component>) stackState.stream().skip(scanned)::iterator) {
+      int position = vector.size() + added.size();
+      if (positions.putIfAbsent(component, position) == null) {
+        newIdPositions.putIfAbsent(component.getId(), position);
+        added.add(ComponentVersion.of(component));
+      }
+    }
+    scanned = stackState.size();
+    idPositions = newIdPositions;
+    if (vector.size() == 0) {
+      return PersistentVector.of(added);
+    }
+    PersistentVector<ComponentVersion> appended = vector;
+    for (ComponentVersion component : added) {
+      appended = appended.append(component);
+    }
+    return appended;
+  }
+}
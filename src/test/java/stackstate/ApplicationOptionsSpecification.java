@@ -0,0 +1,154 @@
+package stackstate;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.junit.Test;
+
+public class ApplicationOptionsSpecification {
+
+  @Test
+  public void shouldReadTheTwoJsonFilesAndSortEventsInMemoryByDefault() {
+    ApplicationOptions options = ApplicationOptions.parse("state.json", "events.json");
+
+    assertThat(options.getStateFilePath(), is("state.json"));
+    assertThat(options.getEventsFilePath(), is("events.json"));
+    assertThat(options.getSortRunSize(), is(OptionalInt.empty()));
+    assertThat(options.isBinaryEvents(), is(false));
+  }
+
+  @Test
+  public void shouldReadEventsFromABinaryEventLogWhenAsked() {
+    ApplicationOptions options = ApplicationOptions.parse("state.json", "events.log", "--binary-events");
+
+    assertThat(options.isBinaryEvents(), is(true));
+  }
+
+  @Test
+  public void shouldReadTheInitialStateFromABinarySnapshotAndWriteOneWhenAsked() {
+    ApplicationOptions options = ApplicationOptions.parse(
+        "state.snapshot", "events.json", "--binary-state", "--write-snapshot", "final.snapshot");
+
+    assertThat(options.isBinaryState(), is(true));
+    assertThat(options.getSnapshotOutputPath(), is(Optional.of("final.snapshot")));
+  }
+
+  @Test
+  public void shouldReadTheDurableDirectory() {
+    ApplicationOptions options = ApplicationOptions.parse("state.json", "events.json", "--durable", "state-dir");
+
+    assertThat(options.getDurableDirectory(), is(Optional.of("state-dir")));
+  }
+
+  @Test
+  public void shouldNeedOnlyTheStateFileInDaemonMode() {
+    ApplicationOptions options = ApplicationOptions.parse("state.json", "--daemon", "--emit-interval", "5",
+        "--max-lateness", "100");
+
+    assertThat(options.isDaemon(), is(true));
+    assertThat(options.getStateFilePath(), is("state.json"));
+    assertThat(options.getEmitIntervalSeconds(), is(OptionalInt.of(5)));
+    assertThat(options.getMaxLateness(), is(OptionalInt.of(100)));
+  }
+
+  @Test
+  public void shouldAcceptNoLatenessAtAll() {
+    assertThat(ApplicationOptions.parse("state.json", "--daemon", "--max-lateness", "0").getMaxLateness(),
+        is(OptionalInt.of(0)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeLateness() {
+    ApplicationOptions.parse("state.json", "--daemon", "--max-lateness", "-1");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAMaxLatenessOutOfDaemonMode() {
+    ApplicationOptions.parse("state.json", "events.json", "--max-lateness", "100");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAnEmitIntervalOutOfDaemonMode() {
+    ApplicationOptions.parse("state.json", "events.json", "--emit-interval", "5");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAnHttpPortOutOfDaemonMode() {
+    ApplicationOptions.parse("state.json", "events.json", "--http-port", "8080");
+  }
+
+  @Test
+  public void shouldReadTheHttpPort() {
+    ApplicationOptions options = ApplicationOptions.parse("state.json", "--daemon", "--http-port", "8080");
+
+    assertThat(options.getHttpPort(), is(OptionalInt.of(8080)));
+  }
+
+  @Test
+  public void shouldReadTheDeltaOutputMode() {
+    assertThat(ApplicationOptions.parse("state.json", "events.json", "--delta").isDelta(), is(true));
+    assertThat(ApplicationOptions.parse("state.json", "events.json").isDelta(), is(false));
+  }
+
+  @Test
+  public void shouldReadJsonWithoutAnObjectMapperWhenAsked() {
+    assertThat(ApplicationOptions.parse("state.json", "events.json", "--fast-json").isFastJson(), is(true));
+    assertThat(ApplicationOptions.parse("state.json", "events.json").isFastJson(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectFastJsonInDaemonMode() {
+    ApplicationOptions.parse("state.json", "--daemon", "--fast-json");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectBinaryEventsInDaemonMode() {
+    ApplicationOptions.parse("state.json", "--daemon", "--binary-events");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNdjsonEventsInDaemonMode() {
+    ApplicationOptions.parse("state.json", "--daemon", "--ndjson-events");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectASortRunSizeInDaemonMode() {
+    ApplicationOptions.parse("state.json", "--daemon", "--sort-run-size", "1000");
+  }
+
+  @Test
+  public void shouldReadTheInitialStateFromABinarySnapshotInDaemonMode() {
+    assertThat(ApplicationOptions.parse("state.bin", "--daemon", "--binary-state").isBinaryState(), is(true));
+  }
+
+  @Test
+  public void shouldReadTheSortRunSizeWhereverItIsGiven() {
+    ApplicationOptions options = ApplicationOptions.parse("--sort-run-size", "1000", "state.json", "events.json");
+
+    assertThat(options.getSortRunSize(), is(OptionalInt.of(1000)));
+    assertThat(options.getEventsFilePath(), is("events.json"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectASortRunSizeForNdjsonEvents() {
+    ApplicationOptions.parse("state.json", "events.ndjson", "--ndjson-events", "--sort-run-size", "1000");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequireTwoJsonFiles() {
+    ApplicationOptions.parse("state.json", "--sort-run-size", "1000");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectASortRunSizeThatIsNotAPositiveNumber() {
+    ApplicationOptions.parse("state.json", "events.json", "--sort-run-size", "none");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnknownOptions() {
+    ApplicationOptions.parse("state.json", "events.json", "--fast");
+  }
+
+}
@@ -0,0 +1,149 @@
+package stackstate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.io.dto.state.ComponentDto;
+import stackstate.io.dto.state.StackStateDto;
+
+public class EventDaemonSpecification {
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+      .configure(SerializationFeature.INDENT_OUTPUT, true);
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+  @Test
+  public void shouldApplyEachEventAndWriteTheStateWhenTheInputEnds() throws IOException {
+    StackState stackState = stackState();
+
+    run(stackState,
+        "{\"timestamp\": \"1\", \"component\": \"db\", \"check_state\": \"CPU load\", \"state\": \"warning\"}",
+        "{\"timestamp\": \"2\", \"component\": \"app\", \"check_state\": \"RAM usage\", \"state\": \"clear\"}");
+
+    assertThat(stackState.getComponent("db").get().getOwnState().value(), is(StateValue.WARNING));
+    assertThat(stackState.getComponent("app").get().getDerivedState().value(), is(StateValue.WARNING));
+    List<StackStateDto> documents = documents();
+    assertThat(documents.size(), is(1));
+    assertThat(derivedStateOf("app", documents.get(0)), is(equalTo("warning")));
+  }
+
+  @Test
+  public void shouldWriteTheStateOnDemand() throws IOException {
+    run(stackState(),
+        "state",
+        "{\"timestamp\": \"1\", \"component\": \"db\", \"check_state\": \"CPU load\", \"state\": \"alert\"}");
+
+    List<StackStateDto> documents = documents();
+    assertThat(documents.size(), is(2));
+    assertThat(derivedStateOf("app", documents.get(0)), is(equalTo("no_data")));
+    assertThat(derivedStateOf("app", documents.get(1)), is(equalTo("alert")));
+  }
+
+  @Test
+  public void shouldSkipInvalidLinesAndCarryOn() throws IOException {
+    StackState stackState = stackState();
+
+    run(stackState,
+        "{\"timestamp\": \"soon\", \"component\": \"db\", \"state\": \"alert\"}",
+        "not json",
+        "",
+        "{\"timestamp\": \"3\", \"component\": \"db\", \"check_state\": \"CPU load\", \"state\": \"alert\"}");
+
+    assertThat(stackState.getComponent("db").get().getOwnState().value(), is(StateValue.ALERT));
+    String reported = new String(errors.toByteArray(), StandardCharsets.UTF_8);
+    assertThat(reported, containsString("Skipping line 1: Timestamp needs to be a number"));
+    assertThat(reported, containsString("Skipping line 2"));
+  }
+
+  @Test
+  public void shouldApplyEventsArrivingWithinTheLatenessInTimestampOrder() {
+    StackState stackState = stackState();
+
+    EventDaemon.builder()
+        .stackState(stackState)
+        .objectMapper(objectMapper)
+        .in(input("{\"timestamp\": \"2\", \"component\": \"db\", \"check_state\": \"disk\", \"state\": \"clear\"}",
+            "{\"timestamp\": \"1\", \"component\": \"db\", \"check_state\": \"disk\", \"state\": \"alert\"}",
+            "{\"timestamp\": \"9\", \"component\": \"db\", \"check_state\": \"disk\", \"state\": \"warning\"}",
+            "{\"timestamp\": \"3\", \"component\": \"db\", \"check_state\": \"CPU load\", \"state\": \"alert\"}",
+            "{\"timestamp\": \"2\", \"component\": \"db\", \"check_state\": \"CPU load\", \"state\": \"clear\"}"))
+        .out(out)
+        .errors(new PrintStream(errors, true))
+        .maxLateness(5L)
+        .build()
+        .run();
+
+    assertThat(stackState.getComponent("db").get().getCheckedState().valueOf("disk"), is(StateValue.WARNING));
+    assertThat(stackState.getComponent("db").get().getCheckedState().valueOf("CPU load"), is(StateValue.ALERT));
+    assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8), containsString("Skipping line 5"));
+  }
+
+  @Test
+  public void shouldRunTheIdleHookOnceTheBufferedInputIsApplied() {
+    AtomicInteger idle = new AtomicInteger();
+
+    EventDaemon.builder()
+        .stackState(stackState())
+        .objectMapper(objectMapper)
+        .in(input("{\"timestamp\": \"1\", \"component\": \"db\", \"check_state\": \"disk\", \"state\": \"alert\"}",
+            "{\"timestamp\": \"2\", \"component\": \"db\", \"check_state\": \"disk\", \"state\": \"clear\"}"))
+        .out(out)
+        .idle(idle::incrementAndGet)
+        .build()
+        .run();
+
+    assertThat(idle.get(), is(1));
+  }
+
+  private void run(StackState stackState, String... lines) {
+    EventDaemon.builder()
+        .stackState(stackState)
+        .objectMapper(objectMapper)
+        .in(input(lines))
+        .out(out)
+        .errors(new PrintStream(errors, true))
+        .build()
+        .run();
+  }
+
+  private List<StackStateDto> documents() throws IOException {
+    return objectMapper.readerFor(StackStateDto.class).<StackStateDto>readValues(out.toByteArray()).readAll();
+  }
+
+  private static String derivedStateOf(String id, StackStateDto document) {
+    return document.getGraph().getComponents().stream()
+        .filter(component -> component.getId().equals(id))
+        .map(ComponentDto::getDerivedState)
+        .findFirst()
+        .get();
+  }
+
+  private static ByteArrayInputStream input(String... lines) {
+    return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static StackState stackState() {
+    Component app = Component.withIdAndCheckedStates("app", "RAM usage");
+    Component db = Component.withIdAndCheckedStates("db", "CPU load", "disk");
+    app.addDependencyOn(db);
+    return StackState.withComponents(app, db);
+  }
+}
@@ -0,0 +1,116 @@
+package stackstate;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import stackstate.domain.Component;
+import stackstate.domain.StateChanges;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.domain.state.DerivedState;
+import utils.Topologies;
+
+public class ParallelStateCalculatorSpecification {
+
+  private final ParallelStateCalculator parallelStateCalculator = new ParallelStateCalculator(new ForkJoinPool(4));
+  private final StateCalculator stateCalculator = new StateCalculator();
+
+  @Test
+  public void shouldProcessTheEventsOfEachIslandInTimestampOrder() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    Component cache = Component.withId("CACHE");
+    app.addDependencyOn(db);
+    StackState initialState = StackState.withComponents(app, db, cache);
+
+    StackState finalState = parallelStateCalculator.processEvents(initialState, EventChain.withEvents(
+        Event.of(3, "DB", "memory", StateValue.WARNING),
+        Event.of(1, "DB", "memory", StateValue.ALERT),
+        Event.of(2, "CACHE", "memory", StateValue.ALERT),
+        Event.of(4, "UNKNOWN", "memory", StateValue.ALERT)));
+
+    assertThat(finalState.getComponent("APP").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+    assertThat(finalState.getComponent("CACHE").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.ALERT))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAStackStateWithAStateChangeListener() {
+    StackState initialState = StackState.withComponent(Component.withId("DB"));
+    initialState.onStateChange(new StateChanges());
+
+    parallelStateCalculator.processEvents(initialState, EventChain.withEvents(
+        Event.of(1, "DB", "memory", StateValue.ALERT)));
+  }
+
+  @Test
+  public void shouldReachTheSameStatesAsSequentialProcessingOnAcyclicTopologies() {
+    for (long seed = 0; seed < 20; seed++) {
+      assertSameStatesAsSequentialProcessing(Topologies.acyclic(seed, 300, 1), Topologies.acyclic(seed, 300, 1), seed);
+    }
+  }
+
+  @Test
+  public void shouldReachTheSameStatesAsSequentialProcessingOnTopologiesWithCycles() {
+    for (long seed = 0; seed < 20; seed++) {
+      assertSameStatesAsSequentialProcessing(Topologies.withCycles(seed, 300, 1), Topologies.withCycles(seed, 300, 1), seed);
+    }
+  }
+
+  @Test
+  public void shouldProcessTheEventsOfAComponentAddedAfterTheStackStateWasBuilt() {
+    StackState initialState = StackState.withComponent(Component.withId("DB"));
+    initialState.addComponent(Component.withId("QUEUE"));
+
+    StackState finalState = parallelStateCalculator.processEvents(initialState, EventChain.withEvents(
+        Event.of(1, "QUEUE", "memory", StateValue.ALERT)));
+
+    assertThat(finalState.getComponent("QUEUE").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.ALERT))));
+  }
+
+  @Test
+  public void shouldReachTheSameStatesAsSequentialProcessingWhenOneIslandHasMostOfTheEvents() {
+    StackState sequentialState = chainAndLoneComponents(50, 30);
+    StackState parallelState = chainAndLoneComponents(50, 30);
+    List<Event> events = new ArrayList<>();
+    for (int index = 0; index < 2_000; index++) {
+      String component = index % 10 == 0 ? "lone-" + (index % 30) : "chained-" + (index % 50);
+      events.add(Event.of(index, component, "check-" + (index % 3), StateValue.values()[index % StateValue.values().length]));
+    }
+
+    stateCalculator.processEvents(sequentialState, EventChain.withEvents(events));
+    parallelStateCalculator.processEvents(parallelState, EventChain.withEvents(events));
+
+    Topologies.assertSameStates(parallelState, sequentialState);
+  }
+
+  private static StackState chainAndLoneComponents(int chained, int lone) {
+    List<Component> components = new ArrayList<>();
+    for (int index = 0; index < chained; index++) {
+      Component component = Component.withId("chained-" + index);
+      if (index > 0) {
+        component.addDependencyOn(components.get(index - 1));
+      }
+      components.add(component);
+    }
+    for (int index = 0; index < lone; index++) {
+      components.add(Component.withId("lone-" + index));
+    }
+    return StackState.withComponents(components);
+  }
+
+  private void assertSameStatesAsSequentialProcessing(StackState sequentialState, StackState parallelState, long seed) {
+    EventChain events = Topologies.events(seed, sequentialState.size(), 3_000);
+
+    stateCalculator.processEvents(sequentialState, events);
+    parallelStateCalculator.processEvents(parallelState, events);
+
+    Topologies.assertSameStates(parallelState, sequentialState);
+  }
+
+}
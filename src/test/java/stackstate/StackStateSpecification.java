@@ -0,0 +1,134 @@
+package stackstate;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+import stackstate.domain.Component;
+import stackstate.domain.SymbolTable;
+
+public class StackStateSpecification {
+
+  @Before
+  public void startFromAnEmptySymbolTable() {
+    SymbolTable.reset();
+  }
+
+  @Test
+  public void shouldFindComponentById() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+
+    StackState stackState = StackState.withComponents(app, db);
+
+    assertThat(stackState.getComponent("APP").get(), is(sameInstance(app)));
+    assertThat(stackState.getComponent("DB").get(), is(sameInstance(db)));
+  }
+
+  @Test
+  public void shouldFindComponentBySymbolOfItsId() {
+    Component app = Component.withId("APP");
+    StackState stackState = StackState.withComponent(app);
+
+    assertThat(stackState.getComponent(SymbolTable.intern("APP")).get(), is(sameInstance(app)));
+    assertThat(stackState.getComponent(SymbolTable.intern("not in the stack state")).isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldFindComponentsWhateverSymbolsWereGivenOutBefore() {
+    IntStream.range(0, 5000).forEach(index -> SymbolTable.intern("stack state unrelated " + index));
+    Component app = Component.withId("stack state late app");
+    StackState stackState = StackState.withComponent(app);
+
+    assertThat(stackState.getComponent(app.getSymbol()).get(), is(sameInstance(app)));
+    assertThat(stackState.getComponent(SymbolTable.find("stack state unrelated 42")).isPresent(), is(false));
+    assertThat(stackState.getComponent(SymbolTable.UNKNOWN).isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldReturnEmptyWhenComponentIsNotPartOfTheStackState() {
+    StackState stackState = StackState.withComponent(Component.withId("APP"));
+
+    assertThat(stackState.getComponent("DB").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldKeepFirstComponentWhenTwoComponentsShareTheSameId() {
+    Component first = Component.withId("APP");
+    Component second = Component.withId("APP");
+
+    StackState stackState = StackState.withComponents(first, second);
+
+    assertThat(stackState.getComponent("APP").get(), is(sameInstance(first)));
+    assertThat(stackState.size(), is(equalTo(2)));
+  }
+
+  @Test
+  public void shouldIndexComponentsAddedAfterConstruction() {
+    StackState stackState = StackState.withComponent(Component.withId("APP"));
+    Component db = Component.withId("DB");
+
+    stackState.addComponent(db);
+
+    assertThat(stackState.getComponent("DB").get(), is(sameInstance(db)));
+    assertThat(stackState.size(), is(equalTo(2)));
+  }
+
+  @Test
+  public void shouldStreamComponentsInInsertionOrder() {
+    StackState stackState = StackState.withComponents(IntStream.range(0, 100)
+        .mapToObj(index -> Component.withId("component-" + index))
+        .collect(Collectors.toList()));
+
+    assertThat(stackState.stream().map(Component::getId).collect(Collectors.toList()),
+        is(equalTo(IntStream.range(0, 100)
+            .mapToObj(index -> "component-" + index)
+            .collect(Collectors.toList()))));
+  }
+
+  @Test
+  public void shouldSplitComponentsIntoIslandsOfLinkedComponents() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    Component cache = Component.withId("CACHE");
+    Component queue = Component.withId("QUEUE");
+    app.addDependencyOn(db);
+    queue.addDependencyOn(cache);
+
+    Islands islands = StackState.withComponents(app, db, cache, queue).islands();
+
+    assertThat(islands.count(), is(2));
+    assertThat(islands.islandOf(app), is(equalTo(islands.islandOf(db))));
+    assertThat(islands.islandOf(cache), is(equalTo(islands.islandOf(queue))));
+  }
+
+  @Test
+  public void shouldJoinIslandsLinkedThroughAComponentOutsideTheStackState() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    Component outsider = Component.withId("OUTSIDER");
+    outsider.addDependencyOn(db);
+    app.addDependencyOn(outsider);
+    StackState stackState = StackState.withComponents(app, db);
+
+    assertThat(stackState.islands().count(), is(1));
+  }
+
+  @Test
+  public void shouldFindIslandsAgainWhenDependenciesAreAddedLater() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    StackState stackState = StackState.withComponents(app, db);
+    assertThat(stackState.islands().count(), is(2));
+
+    app.addDependencyOn(db);
+
+    assertThat(stackState.islands().count(), is(1));
+  }
+
+}
@@ -12,6 +12,7 @@ import stackstate.domain.event.EventChain;
 import stackstate.domain.state.CheckedState;
 import stackstate.domain.state.DerivedState;
 import stackstate.domain.state.OwnState;
+import utils.Topologies;
 
 public class StateCalculatorSpecification {
 
@@ -288,4 +289,74 @@ public class StateCalculatorSpecification {
     assertThat(finalStackState.getComponent("QUEUE").get(), is(equalTo(expectedQueueComponentState)));
   }
 
+  @Test
+  public void shouldReachTheSameStateAsSequentialProcessingWhenEventsAreAppliedInBatches() {
+    for (long seed = 0; seed < 20; seed++) {
+      StackState sequentialState = Topologies.acyclic(seed, 200, 4);
+      StackState batchedState = Topologies.acyclic(seed, 200, 4);
+      EventChain events = Topologies.events(seed, 200, 2_000);
+
+      stateCalculator.processEvents(sequentialState, events);
+      stateCalculator.processEventsInBatches(batchedState, events, 64);
+
+      Topologies.assertSameStates(batchedState, sequentialState);
+    }
+  }
+
+  @Test
+  public void shouldReachTheSameStateAsSequentialProcessingWhenBatchedEventsReachDependencyCycles() {
+    for (long seed = 0; seed < 20; seed++) {
+      StackState sequentialState = Topologies.withCycles(seed, 200, 2);
+      StackState batchedState = Topologies.withCycles(seed, 200, 2);
+      EventChain events = Topologies.events(seed, 200, 2_000);
+
+      stateCalculator.processEvents(sequentialState, events);
+      stateCalculator.processEventsInBatches(batchedState, events, 64);
+
+      Topologies.assertSameStates(batchedState, sequentialState);
+    }
+  }
+
+  @Test
+  public void shouldKeepTheOrderDependentStateOfACycleWhenEventsAreAppliedInBatches() {
+    String memoryCheckState = "memory";
+
+    Component appComponent = Component.withId("APP");
+    Component dbComponent = Component.withId("DB");
+    appComponent.addDependencyOn(dbComponent);
+    dbComponent.addDependencyOn(appComponent);
+
+    StackState initialState = StackState.withComponents(appComponent, dbComponent);
+
+    EventChain eventChain = EventChain.withEvents(
+        Event.of(1, "APP", memoryCheckState, StateValue.WARNING),
+        Event.of(2, "APP", memoryCheckState, StateValue.CLEAR));
+
+    StackState finalState = stateCalculator.processEventsInBatches(initialState, eventChain, 10);
+
+    assertThat(finalState.getComponent("APP").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+    assertThat(finalState.getComponent("DB").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+  }
+
+  @Test
+  public void shouldAccountForDependenciesAddedAfterTheStackStateWasBuiltWhenEventsAreAppliedInBatches() {
+    String memoryCheckState = "memory";
+
+    Component appComponent = Component.withId("APP");
+    Component dbComponent = Component.withId("DB");
+    StackState initialState = StackState.withComponents(appComponent, dbComponent);
+
+    appComponent.addDependencyOn(dbComponent);
+    dbComponent.addDependencyOn(appComponent);
+
+    EventChain eventChain = EventChain.withEvents(
+        Event.of(1, "APP", memoryCheckState, StateValue.WARNING),
+        Event.of(2, "APP", memoryCheckState, StateValue.CLEAR));
+
+    StackState finalState = stateCalculator.processEventsInBatches(initialState, eventChain, 10);
+
+    assertThat(finalState.getComponent("APP").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+    assertThat(finalState.getComponent("DB").get().getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+  }
+
 }
@@ -0,0 +1,73 @@
+package stackstate.columnar;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import utils.Topologies;
+
+public class ColumnarStateCalculatorSpecification {
+
+  private final ColumnarStateCalculator columnarStateCalculator = new ColumnarStateCalculator();
+  private final StateCalculator stateCalculator = new StateCalculator();
+
+  @Test
+  public void shouldGiveBackTheSameStackStateWhenNoEventsAreApplied() {
+    StackState stackState = Topologies.withCycles(7, 100, 3);
+
+    StackState roundTripped = ColumnarStackState.from(stackState).toStackState();
+
+    Topologies.assertSameStates(roundTripped, stackState);
+    stackState.stream().forEach(component -> assertThat(
+        roundTripped.getComponent(component.getId()).get().getDependencies().size(),
+        is(equalTo(component.getDependencies().size()))));
+  }
+
+  @Test
+  public void shouldPropagateDerivedStatesThroughDependents() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    app.addDependencyOn(db);
+    ColumnarStackState initialState = ColumnarStackState.from(StackState.withComponents(app, db));
+
+    ColumnarStackState finalState = columnarStateCalculator.processEvents(initialState, EventChain.withEvents(
+        Event.of(2, "DB", "memory", StateValue.CLEAR),
+        Event.of(1, "DB", "memory", StateValue.ALERT),
+        Event.of(3, "CACHE", "memory", StateValue.ALERT)));
+
+    assertThat(finalState.ownStateOf("DB"), is(StateValue.CLEAR));
+    assertThat(finalState.derivedStateOf("DB"), is(StateValue.NO_DATA));
+    assertThat(finalState.derivedStateOf("APP"), is(StateValue.NO_DATA));
+  }
+
+  @Test
+  public void shouldReachTheSameStatesAsTheObjectEngineOnAcyclicTopologies() {
+    for (long seed = 0; seed < 20; seed++) {
+      assertSameStatesAsTheObjectEngine(Topologies.acyclic(seed, 300, 3), Topologies.acyclic(seed, 300, 3), seed);
+    }
+  }
+
+  @Test
+  public void shouldReachTheSameStatesAsTheObjectEngineOnTopologiesWithCycles() {
+    for (long seed = 0; seed < 20; seed++) {
+      assertSameStatesAsTheObjectEngine(Topologies.withCycles(seed, 200, 2), Topologies.withCycles(seed, 200, 2), seed);
+    }
+  }
+
+  private void assertSameStatesAsTheObjectEngine(StackState objectState, StackState columnarState, long seed) {
+    EventChain events = Topologies.events(seed, objectState.size(), 2_000);
+
+    stateCalculator.processEvents(objectState, events);
+    ColumnarStackState finalState = columnarStateCalculator.processEvents(ColumnarStackState.from(columnarState), events);
+
+    Topologies.assertSameStates(finalState.toStackState(), objectState);
+  }
+
+}
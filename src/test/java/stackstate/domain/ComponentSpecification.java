@@ -4,21 +4,30 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Test;
+import stackstate.StackState;
+import stackstate.domain.enumeration.StateValue;
 import stackstate.domain.event.Event;
 import stackstate.domain.state.CheckedState;
 import stackstate.domain.state.DerivedState;
 import stackstate.domain.state.OwnState;
 import utils.Any;
+import utils.Topologies;
 
 public class ComponentSpecification {
 
@@ -36,26 +45,20 @@ public class ComponentSpecification {
 
   @Test
   public void shouldUpdateItsThreeStatesWhenEventIsApplied() {
-    OwnState ownState = mock(OwnState.class);
-    DerivedState derivedState = mock(DerivedState.class);
-    CheckedState checkedState = mock(CheckedState.class);
+    CheckedState checkedState = spy(CheckedState.dataless());
     Component component = Component.builder()
         .id("APP")
-        .ownState(ownState)
-        .derivedState(derivedState)
+        .ownState(OwnState.dataless())
+        .derivedState(DerivedState.dataless())
         .checkedState(checkedState)
         .dependents(new HashSet<>())
         .build();
 
-    when(checkedState.updateGiven(any(Event.class))).thenReturn(checkedState);
-    when(ownState.updateGiven(any(CheckedState.class))).thenReturn(ownState);
-    when(derivedState.updateGiven(any(Component.class))).thenReturn(derivedState);
+    component.apply(Event.of(1, "APP", "CPU load", StateValue.ALERT));
 
-    component.apply(Any.event());
-
-    verify(checkedState, times(1)).updateGiven(any(Event.class));
-    verify(ownState, times(1)).updateGiven(any(CheckedState.class));
-    verify(derivedState, times(1)).updateGiven(any(Component.class));
+    verify(checkedState, times(1)).apply(any(Event.class));
+    assertThat(component.getOwnState(), is(equalTo(OwnState.of(StateValue.ALERT))));
+    assertThat(component.getDerivedState(), is(equalTo(DerivedState.of(StateValue.ALERT))));
   }
 
   @Test
@@ -63,18 +66,50 @@ public class ComponentSpecification {
     Set<Component> dependents = Set.of(mock(Component.class), mock(Component.class));
     Component component = Component.builder()
         .id("APP")
-        .ownState(mock(OwnState.class))
-        .derivedState(mock(DerivedState.class))
-        .checkedState(mock(CheckedState.class))
+        .ownState(OwnState.dataless())
+        .derivedState(DerivedState.dataless())
+        .checkedState(CheckedState.dataless())
         .dependents(dependents)
         .build();
 
-    component.apply(Any.event());
+    component.apply(Event.of(1, "APP", "CPU load", StateValue.CLEAR));
 
     dependents.forEach(dependent ->
         verify(dependent, times(1)).reCalculateDerivedState());
   }
 
+  @Test
+  public void shouldPropagateDerivedStateThroughDependencyChainsDeeperThanTheThreadStack() {
+    List<Component> chain = IntStream.range(0, 200_000)
+        .mapToObj(index -> Component.withId("component-" + index))
+        .collect(Collectors.toList());
+    for (int index = 1; index < chain.size(); index++) {
+      chain.get(index).addDependencyOn(chain.get(index - 1));
+    }
+    TopologicalRanking.assign(chain);
+
+    chain.get(0).apply(Event.of(1, "component-0", "memory", StateValue.ALERT));
+
+    assertThat(chain.get(chain.size() - 1).getDerivedState(), is(equalTo(DerivedState.of(StateValue.ALERT))));
+  }
+
+  @Test
+  public void shouldRecalculateDerivedStateOnlyOnceWhenSeveralPathsReachTheSameDependent() {
+    Component db = Component.withId("DB");
+    Component queue = Component.withId("QUEUE");
+    Component cache = Component.withId("CACHE");
+    Component app = spy(Component.withId("APP"));
+    queue.addDependencyOn(db);
+    cache.addDependencyOn(queue);
+    app.addDependencyOn(db, cache);
+    TopologicalRanking.assign(Arrays.asList(app, queue, cache, db));
+
+    db.apply(Event.of(1, "DB", "memory", StateValue.WARNING));
+
+    verify(app, times(1)).reCalculateDerivedState();
+    assertThat(app.getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+  }
+
   @Test
   public void shouldAddDependency() {
     Component component = Component.withId("APP");
@@ -97,4 +132,81 @@ public class ComponentSpecification {
     assertThat(dependency.getDependents(), contains(component));
   }
 
+  @Test
+  public void shouldFollowTheHighestDerivedStateOfItsDependenciesAsTheyChange() {
+    Component db = Component.withId("DB");
+    Component queue = Component.withId("QUEUE");
+    Component app = Component.withId("APP");
+    app.addDependencyOn(db, queue);
+    TopologicalRanking.assign(Arrays.asList(app, db, queue));
+
+    db.apply(Event.of(1, "DB", "memory", StateValue.ALERT));
+    queue.apply(Event.of(2, "QUEUE", "memory", StateValue.WARNING));
+    assertThat(app.getHighestDependencyState(), is(StateValue.ALERT));
+
+    db.apply(Event.of(3, "DB", "memory", StateValue.CLEAR));
+    assertThat(app.getDerivedState(), is(equalTo(DerivedState.of(StateValue.WARNING))));
+
+    queue.apply(Event.of(4, "QUEUE", "memory", StateValue.CLEAR));
+    assertThat(app.getDerivedState(), is(equalTo(DerivedState.dataless())));
+  }
+
+  @Test
+  public void shouldCountADependencyOnceWhenItIsAddedAgainAfterItsStateChanged() {
+    Component db = Component.withId("DB");
+    Component app = Component.withId("APP");
+    app.addDependencyOn(db);
+    TopologicalRanking.assign(Arrays.asList(app, db));
+    db.apply(Event.of(1, "DB", "memory", StateValue.ALERT));
+
+    app.addDependencyOn(db);
+    db.apply(Event.of(2, "DB", "memory", StateValue.CLEAR));
+
+    assertThat(app.getDependencies(), hasSize(1));
+    assertThat(db.getDependents(), hasSize(1));
+    assertThat(app.getDerivedState(), is(equalTo(DerivedState.dataless())));
+  }
+
+  @Test
+  public void shouldNotRecalculateDependentsAlreadyAtAlertForTheirOwnReasons() {
+    Component db = Component.withId("DB");
+    Component app = spy(Component.withId("APP"));
+    app.addDependencyOn(db);
+    TopologicalRanking.assign(Arrays.asList(app, db));
+    app.apply(Event.of(1, "APP", "memory", StateValue.ALERT));
+
+    db.apply(Event.of(2, "DB", "memory", StateValue.WARNING));
+
+    verify(app, times(0)).reCalculateDerivedState();
+    assertThat(app.getHighestDependencyState(), is(StateValue.WARNING));
+    assertThat(app.getDerivedState(), is(equalTo(DerivedState.of(StateValue.ALERT))));
+  }
+
+  @Test
+  public void shouldNotAllocateWhenApplyingEventsToChecksItAlreadyTracks() {
+    StackState stackState = Topologies.withCycles(21, 1_000, 3);
+    List<Event> events = Topologies.events(21, 1_000, 10_000).stream().collect(Collectors.toList());
+    List<Component> components = events.stream()
+        .map(event -> stackState.getComponent(event.getComponentSymbol()).get())
+        .collect(Collectors.toList());
+    applyAll(components, events);
+
+    long allocated = allocatedBytes();
+    applyAll(components, events);
+    allocated = allocatedBytes() - allocated;
+
+    assertThat(allocated, is(lessThan((long) events.size())));
+  }
+
+  private static void applyAll(List<Component> components, List<Event> events) {
+    for (int index = 0; index < events.size(); index++) {
+      components.get(index).apply(events.get(index));
+    }
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
 }
@@ -0,0 +1,66 @@
+package stackstate.domain;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.StateChanges.ComponentChange;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+public class StateChangesSpecification {
+
+  private final Component app = Component.withIdAndCheckedStates("app", "CPU load");
+  private final Component db = Component.withIdAndCheckedStates("db", "CPU load");
+  private final Component cache = Component.withIdAndCheckedStates("cache", "CPU load");
+  private final StateChanges changes = new StateChanges();
+
+  @Test
+  public void shouldReportTheChangedComponentsWithTheirPreviousStates() {
+    process(Event.of(1, "db", "CPU load", StateValue.ALERT));
+
+    List<ComponentChange> changed = changes.changes();
+    assertThat(ids(changed), contains("db", "app"));
+    assertThat(changed.get(0).getPreviousOwnState().value(), is(StateValue.NO_DATA));
+    assertThat(changed.get(0).getPreviousCheckedState().valueOf("CPU load"), is(StateValue.NO_DATA));
+    assertThat(changed.get(1).getPreviousDerivedState().value(), is(StateValue.NO_DATA));
+    assertThat(changed.get(1).getComponent().getDerivedState().value(), is(StateValue.ALERT));
+  }
+
+  @Test
+  public void shouldLeaveOutChangesThatCancelEachOtherOut() {
+    process(
+        Event.of(1, "cache", "CPU load", StateValue.WARNING),
+        Event.of(2, "cache", "CPU load", StateValue.NO_DATA));
+
+    assertThat(changes.changes(), is(empty()));
+  }
+
+  @Test
+  public void shouldStartOverAfterAReset() {
+    process(Event.of(1, "db", "CPU load", StateValue.ALERT));
+    changes.reset();
+
+    process(Event.of(2, "cache", "CPU load", StateValue.WARNING));
+
+    assertThat(ids(changes.changes()), contains("cache"));
+  }
+
+  private void process(Event... events) {
+    app.addDependencyOn(db);
+    StackState stackState = StackState.withComponents(app, db, cache);
+    stackState.onStateChange(changes);
+    new StateCalculator().processEvents(stackState, EventChain.withEvents(events));
+  }
+
+  private static List<String> ids(List<ComponentChange> changes) {
+    return changes.stream().map(change -> change.getComponent().getId()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,106 @@
+package stackstate.domain;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+public class SymbolTableSpecification {
+
+  @Before
+  public void startFromAnEmptyTable() {
+    SymbolTable.reset();
+  }
+
+  @After
+  public void leaveAnEmptyTable() {
+    SymbolTable.reset();
+  }
+
+  @Test
+  public void shouldGiveTheSameSymbolToEqualNames() {
+    int symbol = SymbolTable.intern(new String("symbol table app"));
+
+    assertThat(SymbolTable.intern(new String("symbol table app")), is(symbol));
+    assertThat(SymbolTable.find("symbol table app"), is(symbol));
+    assertThat(SymbolTable.intern("symbol table db"), is(not(symbol)));
+  }
+
+  @Test
+  public void shouldTellMissingAndUnknownNamesApart() {
+    assertThat(SymbolTable.intern(null), is(SymbolTable.NONE));
+    assertThat(SymbolTable.name(SymbolTable.NONE), is((String) null));
+    assertThat(SymbolTable.find("never interned"), is(SymbolTable.UNKNOWN));
+  }
+
+  @Test
+  public void shouldShareTheNamesOfEventsWithTheComponents() {
+    Component disk = Component.withIdAndCheckedStates(new String("symbol table disk"), "usage");
+    Event first = Event.of(1, new String("symbol table disk"), new String("usage"), StateValue.ALERT);
+    Event second = Event.of(2, new String("symbol table disk"), new String("usage"), StateValue.CLEAR);
+
+    assertThat(first.getComponent(), is(sameInstance(disk.getId())));
+    assertThat(second.getComponent(), is(sameInstance(first.getComponent())));
+    assertThat(second.getCheckSymbol(), is(first.getCheckSymbol()));
+  }
+
+  @Test
+  public void shouldLeaveTheNamesOfEventsForUnknownComponentsOut() {
+    Event event = Event.of(1, "symbol table unknown component", "symbol table unknown check", StateValue.ALERT);
+
+    StackState stackState = StackState.withComponent(Component.withId("symbol table known component"));
+    new StateCalculator().processEvents(stackState, EventChain.withEvent(event));
+
+    assertThat(event.getComponentSymbol(), is(SymbolTable.UNKNOWN));
+    assertThat(SymbolTable.find("symbol table unknown component"), is(SymbolTable.UNKNOWN));
+    assertThat(SymbolTable.find("symbol table unknown check"), is(SymbolTable.UNKNOWN));
+  }
+
+  @Test
+  public void shouldInternTheChecksOfEventsAppliedToAComponent() {
+    Component queue = Component.withId("symbol table queue");
+    Event event = Event.of(1, "symbol table queue", "symbol table new check", StateValue.WARNING);
+
+    new StateCalculator().processEvents(StackState.withComponent(queue), EventChain.withEvent(event));
+
+    assertThat(event.getCheckSymbol(), is(SymbolTable.find("symbol table new check")));
+    assertThat(queue.getCheckedState().valueOf("symbol table new check"), is(StateValue.WARNING));
+  }
+
+  @Test
+  public void shouldFindTheSymbolOfAnEventOnceItsNameIsInterned() {
+    Event event = Event.of(1, "symbol table late component", "usage", StateValue.ALERT);
+
+    assertThat(event.getComponentSymbol(), is(SymbolTable.UNKNOWN));
+    Component late = Component.withId("symbol table late component");
+
+    assertThat(event.getComponentSymbol(), is(late.getSymbol()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRefuseToInternMoreNamesThanItsCapacity() {
+    SymbolTable.reset(2);
+    SymbolTable.intern("first");
+    SymbolTable.intern("second");
+
+    SymbolTable.intern("third");
+  }
+
+  @Test
+  public void shouldForgetEveryNameWhenReset() {
+    SymbolTable.intern("symbol table forgotten");
+
+    SymbolTable.reset();
+
+    assertThat(SymbolTable.find("symbol table forgotten"), is(SymbolTable.UNKNOWN));
+  }
+}
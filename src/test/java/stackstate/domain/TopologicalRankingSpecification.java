@@ -0,0 +1,115 @@
+package stackstate.domain;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.event.ColumnarEventChain;
+
+public class TopologicalRankingSpecification {
+
+  @Test
+  public void shouldRankComponentsAboveTheirDependencies() {
+    Component app = Component.withId("APP");
+    Component queue = Component.withId("QUEUE");
+    Component db = Component.withId("DB");
+    app.addDependencyOn(queue, db);
+    queue.addDependencyOn(db);
+
+    TopologicalRanking.assign(List.of(app, queue, db));
+
+    assertThat(app.rank(), is(greaterThan(queue.rank())));
+    assertThat(queue.rank(), is(greaterThan(db.rank())));
+  }
+
+  @Test
+  public void shouldGiveTheSameRankToComponentsOfTheSameDependencyCycle() {
+    Component app = Component.withId("APP");
+    Component queue = Component.withId("QUEUE");
+    Component db = Component.withId("DB");
+    Component frontend = Component.withId("FRONTEND");
+    app.addDependencyOn(queue);
+    queue.addDependencyOn(app, db);
+    frontend.addDependencyOn(app);
+
+    TopologicalRanking.assign(List.of(frontend, app, queue, db));
+
+    assertThat(app.rank(), is(equalTo(queue.rank())));
+    assertThat(app.rank(), is(greaterThan(db.rank())));
+    assertThat(frontend.rank(), is(greaterThan(app.rank())));
+  }
+
+  @Test
+  public void shouldRankComponentAddedOnTopOfRankedOnes() {
+    Component queue = Component.withId("QUEUE");
+    Component db = Component.withId("DB");
+    queue.addDependencyOn(db);
+    TopologicalRanking.assign(List.of(queue, db));
+
+    Component app = Component.withId("APP");
+    app.addDependencyOn(queue, db);
+    TopologicalRanking.assign(app);
+
+    assertThat(app.rank(), is(greaterThan(queue.rank())));
+  }
+
+  @Test
+  public void shouldFlagComponentsFromWhichNoDependencyCycleIsReachable() {
+    Component frontend = Component.withId("FRONTEND");
+    Component app = Component.withId("APP");
+    Component queue = Component.withId("QUEUE");
+    Component db = Component.withId("DB");
+    Component cache = Component.withId("CACHE");
+    app.addDependencyOn(queue);
+    queue.addDependencyOn(app, db);
+    frontend.addDependencyOn(app, cache);
+
+    TopologicalRanking.assign(List.of(frontend, app, queue, db, cache));
+
+    assertThat(db.isAcyclicDownstream(), is(false));
+    assertThat(app.isAcyclicDownstream(), is(false));
+    assertThat(queue.isAcyclicDownstream(), is(false));
+    assertThat(cache.isAcyclicDownstream(), is(true));
+    assertThat(frontend.isAcyclicDownstream(), is(true));
+  }
+
+  @Test
+  public void shouldTreatASelfDependentComponentAsACycle() {
+    Component app = Component.withId("APP");
+    app.addDependencyOn(app);
+
+    TopologicalRanking.assign(List.of(app));
+
+    assertThat(app.isAcyclicDownstream(), is(false));
+  }
+
+  @Test
+  public void shouldBeRefreshedBeforeOrderedEventsAreAppliedWhenDependenciesWereAddedSince() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    StackState stackState = StackState.withComponents(app, db);
+    app.addDependencyOn(db);
+
+    new StateCalculator().processOrderedEvents(stackState, Stream.empty());
+
+    assertThat(app.rank(), is(greaterThan(db.rank())));
+  }
+
+  @Test
+  public void shouldBeRefreshedBeforeOrderedColumnarEventsAreAppliedWhenDependenciesWereAddedSince() {
+    Component app = Component.withId("APP");
+    Component db = Component.withId("DB");
+    StackState stackState = StackState.withComponents(app, db);
+    app.addDependencyOn(db);
+
+    new StateCalculator().processOrderedEvents(stackState, ColumnarEventChain.of(Stream.empty()));
+
+    assertThat(app.rank(), is(greaterThan(db.rank())));
+  }
+}
@@ -0,0 +1,94 @@
+package stackstate.domain.event;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import stackstate.StateCalculator;
+import stackstate.domain.SymbolTable;
+import stackstate.domain.enumeration.StateValue;
+import utils.Topologies;
+
+public class ColumnarEventChainSpecification {
+
+  @Before
+  public void startFromAnEmptySymbolTable() {
+    SymbolTable.reset();
+  }
+
+  @Test
+  public void shouldReadBackTheEventsItWasMadeOf() {
+    List<Event> events = Arrays.asList(
+        Event.of(2, "app", "CPU load", StateValue.ALERT),
+        Event.of(1, "db", null, StateValue.CLEAR));
+
+    ColumnarEventChain chain = ColumnarEventChain.of(events);
+
+    assertThat(chain.stream().collect(Collectors.toList()), is(equalTo(events)));
+    assertThat(chain.getEvent(1), is(equalTo(events.get(1))));
+    assertThat(chain.timestampAt(0), is(2L));
+    assertThat(chain.componentAt(0), is(SymbolTable.find("app")));
+    assertThat(chain.checkAt(1), is(SymbolTable.NONE));
+    assertThat(chain.stateAt(1), is(StateValue.CLEAR));
+  }
+
+  @Test
+  public void shouldSortByTimestampKeepingTheOrderOfEventsWithTheSameTimestamp() {
+    EventChain events = Topologies.events(9, 100, 5_000);
+    List<Event> shuffled = events.stream()
+        .map(event -> Event.of(event.getTimestamp() % 50, event.getComponent(), event.getCheckState(),
+            event.getState()))
+        .collect(Collectors.toList());
+
+    ColumnarEventChain sorted = ColumnarEventChain.of(shuffled).sorted();
+
+    assertThat(sorted.stream().collect(Collectors.toList()),
+        is(equalTo(shuffled.stream().sorted().collect(Collectors.toList()))));
+  }
+
+  @Test
+  public void shouldKnowWhenItsEventsAreInTimestampOrder() {
+    ColumnarEventChain unsorted = ColumnarEventChain.of(Arrays.asList(
+        Event.of(2, "app", "CPU load", StateValue.ALERT),
+        Event.of(1, "db", null, StateValue.CLEAR)));
+    ColumnarEventChain sorted = unsorted.sorted();
+
+    assertThat(unsorted.isOrdered(), is(false));
+    assertThat(sorted.isOrdered(), is(true));
+    assertThat(sorted.sorted(), is(sameInstance(sorted)));
+    assertThat(ColumnarEventChain.merge(Arrays.asList(sorted, sorted)).isOrdered(), is(true));
+  }
+
+  @Test
+  public void shouldKeepTheNamesOfUnknownComponentsOutOfTheSymbolTable() {
+    List<Event> first = Arrays.asList(
+        Event.of(3, "columnar unknown db", "columnar unknown check", StateValue.ALERT),
+        Event.of(1, "columnar unknown app", null, StateValue.CLEAR));
+    List<Event> second = Arrays.asList(
+        Event.of(2, "columnar unknown app", "columnar unknown check", StateValue.WARNING));
+
+    ColumnarEventChain merged = ColumnarEventChain.merge(Arrays.asList(
+        ColumnarEventChain.of(first).sorted(), ColumnarEventChain.of(second)));
+
+    assertThat(merged.stream().collect(Collectors.toList()),
+        is(equalTo(Arrays.asList(first.get(1), second.get(0), first.get(0)))));
+    assertThat(merged.componentAt(2), is(SymbolTable.UNKNOWN));
+    assertThat(SymbolTable.find("columnar unknown db"), is(SymbolTable.UNKNOWN));
+    assertThat(SymbolTable.find("columnar unknown check"), is(SymbolTable.UNKNOWN));
+  }
+
+  @Test
+  public void shouldBeProcessedToTheSameStatesAsTheEventsItWasMadeOf() {
+    EventChain events = Topologies.events(9, 1_000, 20_000);
+
+    Topologies.assertSameStates(
+        new StateCalculator().processEvents(Topologies.withCycles(9, 1_000, 2), ColumnarEventChain.of(events)),
+        new StateCalculator().processEvents(Topologies.withCycles(9, 1_000, 2), events));
+  }
+}
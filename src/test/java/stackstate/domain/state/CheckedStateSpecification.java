@@ -1,9 +1,12 @@
 package stackstate.domain.state;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Map;
 import org.junit.Test;
 import stackstate.domain.enumeration.StateValue;
 import stackstate.domain.event.Event;
@@ -95,4 +98,78 @@ public class CheckedStateSpecification {
     assertThat(newCheckedState.isTracking("nosql-db"), is(true));
   }
 
+  @Test
+  public void shouldLowerHighestStateValueWhenTheOnlyCheckAtThatValueIsUpdatedInPlace() {
+    CheckedState checkedState = CheckedState
+        .with("memory", StateValue.WARNING)
+        .and("sql-db", StateValue.ALERT)
+        .build();
+
+    checkedState.apply(Event.builder()
+        .checkState("sql-db")
+        .state(StateValue.CLEAR)
+        .build());
+
+    assertThat(checkedState.valueOf("sql-db"), is(StateValue.CLEAR));
+    assertThat(checkedState.getHighestState(), is(StateValue.WARNING));
+  }
+
+  @Test
+  public void shouldNotShareUpdatesWithItsClones() {
+    CheckedState checkedState = CheckedState.withJust("memory", StateValue.CLEAR);
+    CheckedState clone = checkedState.clone();
+
+    checkedState.apply(Event.builder()
+        .checkState("memory")
+        .state(StateValue.ALERT)
+        .build());
+
+    assertThat(clone.valueOf("memory"), is(StateValue.CLEAR));
+    assertThat(clone.getHighestState(), is(StateValue.CLEAR));
+  }
+
+  @Test
+  public void shouldBeEqualToCheckedStateWithTheSameValuesWhateverTheUpdatesThatLedThere() {
+    CheckedState checkedState = CheckedState.withJust("memory", StateValue.ALERT);
+
+    checkedState.apply(Event.builder()
+        .checkState("memory")
+        .state(StateValue.WARNING)
+        .build());
+
+    assertThat(checkedState, is(equalTo(CheckedState.withJust("memory", StateValue.WARNING))));
+  }
+
+  @Test
+  public void shouldKeepTrackOfEveryCheckAppliedToIt() {
+    CheckedState checkedState = CheckedState.dataless();
+
+    for (int check = 0; check < 100; check++) {
+      checkedState.apply(Event.builder()
+          .checkState("check " + check)
+          .state(check % 2 == 0 ? StateValue.CLEAR : StateValue.WARNING)
+          .build());
+    }
+
+    assertThat(checkedState.getValues().size(), is(100));
+    assertThat(checkedState.valueOf("check 0"), is(StateValue.CLEAR));
+    assertThat(checkedState.valueOf("check 99"), is(StateValue.WARNING));
+    assertThat(checkedState.getHighestState(), is(StateValue.WARNING));
+  }
+
+  @Test
+  public void shouldShowItsUpdatesThroughItsValues() {
+    CheckedState checkedState = CheckedState.withJust("memory", StateValue.CLEAR);
+    Map<String, StateValue> values = checkedState.getValues();
+
+    checkedState.apply(Event.builder()
+        .checkState("disk")
+        .state(StateValue.ALERT)
+        .build());
+
+    assertThat(values.get("disk"), is(StateValue.ALERT));
+    assertThat(values.get("cpu"), is(nullValue()));
+    assertThat(values, is(equalTo(Map.of("memory", StateValue.CLEAR, "disk", StateValue.ALERT))));
+  }
+
 }
@@ -0,0 +1,40 @@
+package stackstate.domain.state;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import stackstate.domain.enumeration.StateValue;
+
+public class StateCountsSpecification {
+
+  @Test
+  public void shouldReturnNoDataAsHighestStateWhenEmpty() {
+    assertThat(StateCounts.empty().highest(), is(StateValue.NO_DATA));
+  }
+
+  @Test
+  public void shouldReturnTheHighestStateWithAtLeastOneItem() {
+    StateCounts counts = StateCounts.empty();
+    counts.add(StateValue.CLEAR);
+    counts.add(StateValue.ALERT);
+    counts.add(StateValue.ALERT);
+
+    counts.move(StateValue.ALERT, StateValue.WARNING);
+    assertThat(counts.highest(), is(StateValue.ALERT));
+
+    counts.remove(StateValue.ALERT);
+    assertThat(counts.highest(), is(StateValue.WARNING));
+  }
+
+  @Test
+  public void shouldNotShareUpdatesWithItsClones() {
+    StateCounts counts = StateCounts.empty();
+    counts.add(StateValue.WARNING);
+    StateCounts clone = counts.clone();
+
+    counts.move(StateValue.WARNING, StateValue.ALERT);
+
+    assertThat(clone.highest(), is(StateValue.WARNING));
+  }
+}
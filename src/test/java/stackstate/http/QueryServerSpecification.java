@@ -0,0 +1,153 @@
+package stackstate.http;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.io.dto.state.ComponentDto;
+import stackstate.io.dto.state.GraphDto;
+import stackstate.mvcc.VersionedStackState;
+import utils.Topologies;
+
+public class QueryServerSpecification {
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+  private VersionedStackState versioned;
+  private QueryServer server;
+
+  @Before
+  public void startServer() {
+    Component app = Component.withIdAndCheckedStates("app", "CPU load");
+    Component db = Component.withIdAndCheckedStates("db", "CPU load");
+    Component disk = Component.withIdAndCheckedStates("db disk", "usage");
+    app.addDependencyOn(db);
+    db.addDependencyOn(disk);
+    versioned = VersionedStackState.of(StackState.withComponents(app, db, disk));
+    versioned.apply(Event.of(1, "db disk", "usage", StateValue.ALERT));
+    server = QueryServer.start(versioned, objectMapper, 0);
+  }
+
+  @After
+  public void stopServer() {
+    server.close();
+  }
+
+  @Test
+  public void shouldAnswerWithASingleComponent() throws IOException {
+    HttpURLConnection connection = get("/components/db%20disk");
+
+    assertThat(connection.getResponseCode(), is(200));
+    assertThat(connection.getHeaderField("X-Stack-State-Version"), is("1"));
+    ComponentDto component = read(connection.getInputStream(), ComponentDto.class);
+    assertThat(component.getId(), is("db disk"));
+    assertThat(component.getOwnState(), is("alert"));
+    assertThat(component.getDependencyOf(), is(equalTo(Collections.singletonList("db"))));
+  }
+
+  @Test
+  public void shouldAnswerNotFoundForAnUnknownComponent() throws IOException {
+    assertThat(get("/components/cache").getResponseCode(), is(404));
+  }
+
+  @Test
+  public void shouldAnswerNotFoundForAPathThatOnlyStartsLikeTheComponents() throws IOException {
+    assertThat(get("/componentsdb").getResponseCode(), is(404));
+  }
+
+  @Test
+  public void shouldAnswerWithAnInternalErrorWhenTheAnswerCannotBeWritten() throws IOException {
+    server.close();
+    server = QueryServer.start(versioned, new ObjectMapper() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        if (value instanceof ComponentDto) {
+          throw new IllegalStateException("broken");
+        }
+        return super.writeValueAsBytes(value);
+      }
+    }, 0);
+
+    assertThat(get("/components/db").getResponseCode(), is(500));
+  }
+
+  @Test
+  public void shouldRejectAnUnknownState() throws IOException {
+    assertThat(get("/components?derived_state=purple").getResponseCode(), is(400));
+  }
+
+  @Test
+  public void shouldListTheComponentsAtTheGivenDerivedState() throws IOException {
+    GraphDto graph = read(get("/components?derived_state=alert").getInputStream(), GraphDto.class);
+
+    assertThat(ids(graph), containsInAnyOrder("app", "db", "db disk"));
+    assertThat(read(get("/components?derived_state=clear").getInputStream(), GraphDto.class).getComponents().size(),
+        is(0));
+    assertThat(read(get("/components?limit=2").getInputStream(), GraphDto.class).getComponents().size(), is(2));
+  }
+
+  @Test
+  public void shouldAnswerWithTheNeighborhoodUpToTheGivenDepth() throws IOException {
+    assertThat(ids(read(get("/components/app/neighborhood").getInputStream(), GraphDto.class)),
+        containsInAnyOrder("app", "db"));
+    assertThat(ids(read(get("/components/app/neighborhood?depth=2").getInputStream(), GraphDto.class)),
+        containsInAnyOrder("app", "db", "db disk"));
+  }
+
+  @Test
+  public void shouldAnswerConcurrentRequestsWhileEventsAreApplied() throws Exception {
+    server.close();
+    versioned = VersionedStackState.of(Topologies.withCycles(4, 500, 2));
+    server = QueryServer.start(versioned, objectMapper, 0);
+    ExecutorService clients = Executors.newFixedThreadPool(16);
+    List<Future<Integer>> responses = new ArrayList<>();
+    for (int request = 0; request < 400; request++) {
+      String id = "component-" + request % 500;
+      responses.add(clients.submit(() -> get("/components/" + id + "/neighborhood").getResponseCode()));
+    }
+    Topologies.events(4, 500, 5_000).stream().forEach(versioned::apply);
+
+    for (Future<Integer> response : responses) {
+      assertThat(response.get(), is(200));
+    }
+    clients.shutdown();
+  }
+
+  private HttpURLConnection get(String path) throws IOException {
+    return (HttpURLConnection) new URL("http://localhost:" + server.port() + path).openConnection();
+  }
+
+  private <T> T read(InputStream in, Class<T> type) throws IOException {
+    try (InputStream body = in) {
+      return objectMapper.readValue(body, type);
+    }
+  }
+
+  private static List<String> ids(GraphDto graph) {
+    return graph.getComponents().stream().map(ComponentDto::getId).collect(Collectors.toList());
+  }
+}
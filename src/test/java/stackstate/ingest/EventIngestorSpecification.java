@@ -0,0 +1,161 @@
+package stackstate.ingest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import utils.Topologies;
+
+public class EventIngestorSpecification {
+
+  private static final int PRODUCERS = 4;
+
+  @Test
+  public void shouldApplyTheEventsOfSeveralProducersWithEveryWaitStrategy() throws InterruptedException {
+    EventChain events = Topologies.events(11, 500, 5_000);
+    StackState expected = new StateCalculator().processEvents(Topologies.acyclic(11, 500, 3), events);
+
+    for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+      StackState stackState = Topologies.acyclic(11, 500, 3);
+      EventIngestor ingestor = EventIngestor.builder()
+          .stackState(stackState)
+          .capacity(64)
+          .maxBatch(16)
+          .waitStrategy(waitStrategy)
+          .build();
+      try {
+        publishFromProducers(ingestor, events);
+      } finally {
+        ingestor.close();
+      }
+      assertThat(ingestor.appliedCount(), is((long) events.size()));
+      Topologies.assertSameStates(stackState, expected);
+    }
+  }
+
+  @Test
+  public void shouldApplyTheEventsOfOneProducerInOrder() {
+    List<Long> applied = new ArrayList<>();
+
+    try (EventIngestor ingestor = EventIngestor.builder()
+        .applier(event -> applied.add(event.getTimestamp()))
+        .capacity(4)
+        .build()) {
+      for (long timestamp = 1; timestamp <= 10; timestamp++) {
+        ingestor.publish(Event.of(timestamp, "app", "CPU load", StateValue.CLEAR));
+      }
+    }
+
+    assertThat(applied, contains(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+  }
+
+  @Test
+  public void shouldRunTheHookAfterEachBatch() {
+    List<Integer> batches = new ArrayList<>();
+    int[] batch = {0};
+
+    try (EventIngestor ingestor = EventIngestor.builder()
+        .applier(event -> batch[0]++)
+        .afterBatch(() -> {
+          batches.add(batch[0]);
+          batch[0] = 0;
+        })
+        .maxBatch(3)
+        .build()) {
+      for (long timestamp = 1; timestamp <= 7; timestamp++) {
+        ingestor.publish(Event.of(timestamp, "app", "CPU load", StateValue.CLEAR));
+      }
+    }
+
+    assertThat(batches.stream().mapToInt(Integer::intValue).sum(), is(7));
+    assertThat(batches.stream().allMatch(size -> size >= 1 && size <= 3), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldReportAFailedApplyWhenClosed() {
+    try (EventIngestor ingestor = EventIngestor.builder()
+        .applier(event -> {
+          throw new IllegalArgumentException("broken");
+        })
+        .build()) {
+      ingestor.publish(Event.of(1, "app", "CPU load", StateValue.CLEAR));
+    }
+  }
+
+  @Test
+  public void shouldStopProducersWaitingForRoomOnceApplyingFailed() throws InterruptedException {
+    CountDownLatch applying = new CountDownLatch(1);
+    CountDownLatch fail = new CountDownLatch(1);
+    EventIngestor ingestor = EventIngestor.builder()
+        .applier(event -> {
+          applying.countDown();
+          await(fail);
+          throw new IllegalArgumentException("broken");
+        })
+        .capacity(1)
+        .waitStrategy(WaitStrategy.PARK)
+        .build();
+    ingestor.publish(Event.of(1, "app", "CPU load", StateValue.CLEAR));
+    applying.await();
+
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Thread producer = new Thread(() -> {
+      try {
+        ingestor.publish(Event.of(2, "app", "CPU load", StateValue.CLEAR));
+      } catch (RuntimeException e) {
+        failure.set(e);
+      }
+    });
+    producer.setDaemon(true);
+    producer.start();
+    while (producer.isAlive() && producer.getState() != Thread.State.TIMED_WAITING) {
+      Thread.yield();
+    }
+    fail.countDown();
+    producer.join(10_000);
+
+    assertThat(producer.isAlive(), is(false));
+    assertThat(failure.get(), is(instanceOf(IllegalStateException.class)));
+  }
+
+  @Test
+  public void shouldRoundTheCapacityUpToAPowerOfTwo() {
+    assertThat(new EventRingBuffer(1, WaitStrategy.YIELD).capacity(), is(equalTo(1)));
+    assertThat(new EventRingBuffer(1000, WaitStrategy.YIELD).capacity(), is(equalTo(1024)));
+    assertThat(new EventRingBuffer(1024, WaitStrategy.YIELD).capacity(), is(equalTo(1024)));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void publishFromProducers(EventIngestor ingestor, EventChain events) throws InterruptedException {
+    List<Thread> producers = new ArrayList<>();
+    for (int producer = 0; producer < PRODUCERS; producer++) {
+      int own = producer;
+      producers.add(new Thread(() -> events.stream()
+          .filter(event -> Math.floorMod(event.getComponent().hashCode(), PRODUCERS) == own)
+          .forEach(ingestor::publish)));
+    }
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package stackstate.ingest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.exception.IllegalEventConfigurationException;
+import utils.Topologies;
+
+public class EventReorderBufferSpecification {
+
+  private final List<Long> released = new ArrayList<>();
+  private final EventReorderBuffer buffer =
+      EventReorderBuffer.withLateness(2, event -> released.add(event.getTimestamp()));
+
+  @Test
+  public void shouldReleaseEventsInTimestampOrderOnceTheWatermarkPassesThem() {
+    offer(3, 1, 2);
+    assertThat(released, contains(1L));
+
+    offer(6);
+    assertThat(released, contains(1L, 2L, 3L));
+    assertThat(buffer.size(), is(1));
+
+    buffer.flush();
+    assertThat(released, contains(1L, 2L, 3L, 6L));
+  }
+
+  @Test(expected = IllegalEventConfigurationException.class)
+  public void shouldRejectAnEventOlderThanOneAlreadyReleased() {
+    offer(5, 8, 4);
+  }
+
+  @Test(expected = IllegalEventConfigurationException.class)
+  public void shouldRejectATimestampAlreadyHeld() {
+    offer(5, 4, 5);
+  }
+
+  @Test
+  public void shouldHoldNoMoreEventsThanTheLatenessAllows() {
+    Random random = new Random(5);
+    List<Long> timestamps = LongStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList());
+    for (int index = 0; index + 2 < timestamps.size(); index += 3) {
+      Collections.shuffle(timestamps.subList(index, index + 3), random);
+    }
+
+    for (long timestamp : timestamps) {
+      buffer.offer(Event.of(timestamp, "app", "CPU load", StateValue.CLEAR));
+      assertThat(buffer.size(), is(lessThanOrEqualTo(3)));
+    }
+    buffer.flush();
+
+    assertThat(released, is(LongStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList())));
+  }
+
+  @Test
+  public void shouldApplyShuffledEventsToTheSameStatesAsSortedOnes() {
+    EventChain events = Topologies.events(13, 500, 5_000);
+    List<Event> shuffled = new ArrayList<>(events.stream().collect(Collectors.toList()));
+    for (int index = 0; index + 10 < shuffled.size(); index += 10) {
+      Collections.shuffle(shuffled.subList(index, index + 10), new Random(index));
+    }
+    StackState stackState = Topologies.withCycles(13, 500, 2);
+    EventReorderBuffer reorder = EventReorderBuffer.withLateness(10, event ->
+        stackState.getComponent(event.getComponentSymbol()).ifPresent(component -> component.apply(event)));
+
+    shuffled.forEach(reorder::offer);
+    reorder.flush();
+
+    Topologies.assertSameStates(stackState,
+        new StateCalculator().processEvents(Topologies.withCycles(13, 500, 2), events));
+  }
+
+  private void offer(long... timestamps) {
+    for (long timestamp : timestamps) {
+      buffer.offer(Event.of(timestamp, "app", "CPU load", StateValue.CLEAR));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.log.EventLog;
+import stackstate.io.log.EventLogConverter;
+import stackstate.io.log.EventLogWriter;
+import stackstate.io.reader.BinaryEventLogReader;
+import stackstate.io.reader.StackStateReader;
+import stackstate.io.reader.StreamingJsonFileReader;
+import utils.Any;
+
+public class BinaryEventLogReaderSpecification {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
+
+  @Test
+  public void shouldReadTheSameEventsAsTheJsonFileItWasConvertedFrom() throws IOException {
+    String jsonEvents = getFileFullPath("events-non-empty.json");
+    Path eventLog = folder.getRoot().toPath().resolve("events.log");
+    try (Stream<Event> events = StreamingJsonFileReader.streamEvents(jsonEvents, codec)) {
+      EventLogConverter.convert(events, eventLog);
+    }
+
+    EventChain expected = new StreamingJsonFileReader(Any.fileName(), jsonEvents, codec).readEvents();
+    EventChain actual = new BinaryEventLogReader(Any.fileName(), eventLog.toString(), codec).readEvents();
+
+    assertThat(actual.stream().collect(Collectors.toList()), is(equalTo(expected.stream().collect(Collectors.toList()))));
+  }
+
+  @Test
+  public void shouldKeepRepeatedAndMissingNames() throws IOException {
+    List<Event> events = List.of(
+        Event.of(3, "APP", "memory", StateValue.ALERT),
+        Event.of(1, "DB", null, StateValue.CLEAR),
+        Event.of(2, "APP", "memory", StateValue.NO_DATA));
+    Path file = folder.getRoot().toPath().resolve("events.log");
+    try (EventLogWriter writer = new EventLogWriter(file)) {
+      for (Event event : events) {
+        writer.write(event);
+      }
+    }
+
+    try (EventLog eventLog = EventLog.open(file)) {
+      assertThat(eventLog.size(), is(3L));
+      assertThat(eventLog.get(1), is(equalTo(events.get(1))));
+      assertThat(eventLog.stream().collect(Collectors.toList()), is(equalTo(events)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenEventsFileIsNotAnEventLog() {
+    StackStateReader reader = new BinaryEventLogReader(Any.fileName(), getFileFullPath("events-non-empty.json"),
+        codec);
+
+    reader.readEvents();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenEventLogDoesNotExist() {
+    StackStateReader reader = new BinaryEventLogReader(Any.fileName(), Any.fileName(), codec);
+
+    reader.readEvents();
+  }
+
+  private static String getFileFullPath(String file) {
+    try {
+      return Paths.get(BinaryEventLogReaderSpecification.class
+          .getClassLoader()
+          .getResource(file)
+          .toURI())
+          .toString();
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
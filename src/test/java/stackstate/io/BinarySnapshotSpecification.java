@@ -0,0 +1,106 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.reader.BinarySnapshotReader;
+import stackstate.io.snapshot.StackStateSnapshot;
+import stackstate.io.writer.BinarySnapshotWriter;
+import utils.Any;
+import utils.Topologies;
+
+public class BinarySnapshotSpecification {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldReadBackTheStatesAndDependenciesOfEveryComponent() throws IOException {
+    StackState stackState = Topologies.withCycles(3, 200, 3);
+    new StateCalculator().processEvents(stackState, Topologies.events(3, 200, 1_000));
+
+    StackState snapshot = roundTrip(stackState);
+
+    Topologies.assertSameStates(snapshot, stackState);
+    stackState.stream().forEach(component -> {
+      Component read = snapshot.getComponent(component.getId()).get();
+      assertThat(ids(read.getDependencies()), is(equalTo(ids(component.getDependencies()))));
+      assertThat(ids(read.getDependents()), is(equalTo(ids(component.getDependents()))));
+    });
+  }
+
+  @Test
+  public void shouldKeepProcessingEventsLikeTheOriginalStackState() throws IOException {
+    StackState stackState = Topologies.withCycles(5, 200, 2);
+    StackState snapshot = roundTrip(Topologies.withCycles(5, 200, 2));
+    EventChain events = Topologies.events(5, 200, 1_000);
+
+    new StateCalculator().processEvents(stackState, events);
+    new StateCalculator().processEvents(snapshot, events);
+
+    Topologies.assertSameStates(snapshot, stackState);
+  }
+
+  @Test
+  public void shouldKeepChecksWithoutName() throws IOException {
+    Component app = Component.withId("APP");
+    app.apply(Event.of(1, "APP", null, StateValue.WARNING));
+
+    StackState snapshot = roundTrip(StackState.withComponent(app));
+
+    assertThat(snapshot.getComponent("APP").get().getCheckedState().valueOf(null), is(StateValue.WARNING));
+  }
+
+  @Test
+  public void shouldWriteAndReadSnapshotFiles() {
+    Path file = folder.getRoot().toPath().resolve("state.snapshot");
+    StackState stackState = Topologies.acyclic(9, 50, 2);
+
+    new BinarySnapshotWriter(stackState, file).write();
+    StackState snapshot = new BinarySnapshotReader(file.toString(), Any.fileName(),
+        ObjectMapperDtoCodec.of(new ObjectMapper()))
+        .readInitialState();
+
+    Topologies.assertSameStates(snapshot, stackState);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenFileIsNotASnapshot() throws IOException {
+    StackStateSnapshot.read(new ByteArrayInputStream("{\"graph\": {}}".getBytes()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenSnapshotDoesNotExist() {
+    new BinarySnapshotReader(Any.fileName(), Any.fileName(),
+        ObjectMapperDtoCodec.of(new ObjectMapper())).readInitialState();
+  }
+
+  private static StackState roundTrip(StackState stackState) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StackStateSnapshot.write(stackState, out);
+    return StackStateSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static Set<String> ids(Set<Component> components) {
+    return components.stream().map(Component::getId).collect(Collectors.toSet());
+  }
+
+}
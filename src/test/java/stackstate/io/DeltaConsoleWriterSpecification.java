@@ -0,0 +1,69 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.Component;
+import stackstate.domain.StateChanges;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.writer.DeltaConsoleWriter;
+
+public class DeltaConsoleWriterSpecification {
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+      .configure(SerializationFeature.INDENT_OUTPUT, true);
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
+
+  @Test
+  public void shouldWriteOnlyTheChangedComponentsWithTheirPreviousStates() throws IOException {
+    Component app = Component.withIdAndCheckedStates("app", "CPU load");
+    Component db = Component.withIdAndCheckedStates("db", "CPU load");
+    Component cache = Component.withIdAndCheckedStates("cache", "CPU load");
+    app.addDependencyOn(db);
+    StackState stackState = StackState.withComponents(app, db, cache);
+    StateChanges changes = new StateChanges();
+    stackState.onStateChange(changes);
+
+    new StateCalculator().processEvents(stackState, EventChain.withEvents(
+        Event.of(1, "db", "CPU load", StateValue.WARNING)));
+
+    JsonNode written = write(changes).get("changes");
+    assertThat(written.size(), is(2));
+    JsonNode db1 = written.get(0);
+    assertThat(db1.get("id").asText(), is(equalTo("db")));
+    assertThat(db1.get("own_state").asText(), is(equalTo("warning")));
+    assertThat(db1.get("check_states").get("CPU load").asText(), is(equalTo("warning")));
+    assertThat(db1.get("previous").get("own_state").asText(), is(equalTo("no_data")));
+    assertThat(db1.get("previous").get("check_states").get("CPU load").asText(), is(equalTo("no_data")));
+    JsonNode app1 = written.get(1);
+    assertThat(app1.get("id").asText(), is(equalTo("app")));
+    assertThat(app1.get("derived_state").asText(), is(equalTo("warning")));
+    assertThat(app1.get("previous").get("derived_state").asText(), is(equalTo("no_data")));
+  }
+
+  @Test
+  public void shouldWriteAnEmptyListWhenNothingChanged() throws IOException {
+    assertThat(write(new StateChanges()).get("changes").size(), is(0));
+  }
+
+  private JsonNode write(StateChanges changes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new DeltaConsoleWriter(changes, codec, out).write();
+    return objectMapper.readTree(out.toByteArray());
+  }
+}
@@ -0,0 +1,146 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.DtoJsonCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.dto.event.StackEventDto;
+import stackstate.io.dto.state.ComponentDto;
+import stackstate.io.dto.state.GraphDto;
+import stackstate.io.dto.state.StackStateDto;
+import stackstate.io.reader.ExternalJsonFileReader;
+import stackstate.io.reader.NdjsonEventParser;
+import utils.Any;
+
+public class DtoJsonCodecSpecification {
+
+  private final DtoCodec objectMapper = ObjectMapperDtoCodec.of(new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+      .configure(SerializationFeature.INDENT_OUTPUT, true));
+  private final DtoJsonCodec codec = DtoJsonCodec.indented();
+
+  @Test
+  public void shouldReadTheSameStackStateAsTheObjectMapper() throws IOException {
+    File stateFile = new File(getFileFullPath("stack-state-non-empty.json"));
+
+    StackStateDto expected = read(objectMapper, stateFile, StackStateDto.class);
+    StackStateDto actual = read(codec, stateFile, StackStateDto.class);
+
+    assertThat(actual.getGraph().getComponents(), is(equalTo(expected.getGraph().getComponents())));
+  }
+
+  @Test
+  public void shouldReadTheSameEventsAsTheObjectMapper() throws IOException {
+    File eventsFile = new File(getFileFullPath("events-non-empty.json"));
+
+    StackEventDto expected = read(objectMapper, eventsFile, StackEventDto.class);
+    StackEventDto actual = read(codec, eventsFile, StackEventDto.class);
+
+    assertThat(actual.toString(), is(equalTo(expected.toString())));
+  }
+
+  @Test
+  public void shouldWriteTheSameJsonAsTheObjectMapper() throws IOException {
+    StackStateDto stackState = StackStateDto.builder()
+        .graph(GraphDto.builder()
+            .components(Arrays.asList(
+                ComponentDto.builder()
+                    .id("app")
+                    .ownState("warning")
+                    .checkStates(Collections.singletonMap("CPU load", "warning"))
+                    .dependsOn(Collections.singletonList("db"))
+                    .build(),
+                ComponentDto.builder()
+                    .id("db")
+                    .build()))
+            .build())
+        .build();
+    StackEventDto events = StackEventDto.builder()
+        .events(Collections.singletonList(EventDto.builder()
+            .timestamp("1")
+            .component("db")
+            .state("alert")
+            .build()))
+        .build();
+
+    assertThat(write(codec, stackState), is(equalTo(write(objectMapper, stackState))));
+    assertThat(write(codec, events), is(equalTo(write(objectMapper, events))));
+  }
+
+  @Test
+  public void shouldTakeScalarsAsStringsLikeTheObjectMapper() {
+    NdjsonEventParser parser = new NdjsonEventParser(DtoJsonCodec.compact());
+
+    assertThat(parser.parse("{\"timestamp\": 7, \"component\": \"db\", \"check_state\": \"CPU load\", "
+        + "\"state\": \"clear\"}").getTimestamp(), is(7L));
+  }
+
+  @Test(expected = JsonMappingException.class)
+  public void shouldRejectUnrecognizedFields() throws IOException {
+    try (JsonParser parser = codec.getFactory().createParser("{\"timestamp\": \"1\", \"unknown\": 1}")) {
+      codec.readValue(parser, EventDto.class);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenStackStateJsonFileIsMalformed() {
+    new ExternalJsonFileReader(getFileFullPath("stack-state-malformed.json"), Any.fileName(), codec)
+        .readInitialState();
+  }
+
+  @Test
+  public void shouldBuildStackStateWithoutAnObjectMapper() {
+    StackState stackState = new ExternalJsonFileReader(getFileFullPath("stack-state-non-empty.json"),
+        Any.fileName(), codec).readInitialState();
+
+    assertThat(stackState.size(), is(2));
+    assertThat(stackState.getComponent("app").get().getDerivedState().value(), is(StateValue.NO_DATA));
+  }
+
+  private static <T> T read(DtoCodec codec, File file, Class<T> type) throws IOException {
+    try (JsonParser parser = codec.getFactory().createParser(file)) {
+      return codec.readValue(parser, type);
+    }
+  }
+
+  private static String write(DtoCodec codec, Object value) throws IOException {
+    StringWriter json = new StringWriter();
+    try (JsonGenerator generator = codec.getFactory().createGenerator(json)) {
+      codec.writeValue(generator, value);
+    }
+    return json.toString();
+  }
+
+  private static String getFileFullPath(String file) {
+    try {
+      return Paths.get(DtoJsonCodecSpecification.class
+          .getClassLoader()
+          .getResource(file)
+          .toURI())
+          .toString();
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -17,6 +17,8 @@ import stackstate.domain.event.EventChain;
 import stackstate.domain.state.CheckedState;
 import stackstate.domain.state.DerivedState;
 import stackstate.domain.state.OwnState;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
 import stackstate.io.reader.ExternalJsonFileReader;
 import stackstate.io.reader.StackStateReader;
 import utils.Any;
@@ -25,12 +27,13 @@ public class ExternalJsonFileReaderSpecification {
 
   private final ObjectMapper objectMapper = new ObjectMapper()
       .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
 
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowExceptionWhenStackStateJsonFileIsMalformed() {
     String stateFile = getFileFullPath("./stack-state-malformed.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), codec);
     reader.readInitialState();
   }
 
@@ -38,7 +41,7 @@ public class ExternalJsonFileReaderSpecification {
   public void shouldThrowExceptionWhenEventsJsonFileIsMalformed() {
     String eventsFile = getFileFullPath("./events-malformed.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, codec);
     reader.readEvents();
   }
 
@@ -46,7 +49,7 @@ public class ExternalJsonFileReaderSpecification {
   public void shouldBuildEmptyStackStateWhenStackStateJsonFileIsEmpty() {
     String stateFile = getFileFullPath("./stack-state-empty.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), codec);
     StackState stackState = reader.readInitialState();
 
     assertThat(stackState.size(), is(equalTo(0)));
@@ -56,7 +59,7 @@ public class ExternalJsonFileReaderSpecification {
   public void shouldBuildEmptyEventChainWhenEventsJsonFileIsEmpty() {
     String eventsFile = getFileFullPath("./events-empty.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, codec);
     EventChain events = reader.readEvents();
 
     assertThat(events.size(), is(equalTo(0)));
@@ -66,7 +69,7 @@ public class ExternalJsonFileReaderSpecification {
   public void shouldBuildStackStateWhenStackStateJsonFileIsNotEmpty() {
     String stateFile = getFileFullPath("./stack-state-non-empty.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(stateFile, Any.fileName(), codec);
     StackState stackState = reader.readInitialState();
 
     assertThat(stackState.size(), is(equalTo(2)));
@@ -111,7 +114,7 @@ public class ExternalJsonFileReaderSpecification {
   public void shouldBuildEventChainWhenEventsJsonFileIsNotEmpty() {
     String eventsFile = getFileFullPath("./events-non-empty.json");
 
-    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, objectMapper);
+    StackStateReader reader = new ExternalJsonFileReader(Any.fileName(), eventsFile, codec);
     EventChain eventChain = reader.readEvents();
 
     assertThat(eventChain.size(), is(equalTo(2)));
@@ -0,0 +1,116 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.domain.event.ColumnarEventChain;
+import stackstate.domain.event.Event;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.dto.event.EventDto;
+import stackstate.io.exception.IllegalEventConfigurationException;
+import stackstate.io.reader.ParallelNdjsonFileReader;
+import utils.Any;
+import utils.Topologies;
+
+public class ParallelNdjsonFileReaderSpecification {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @After
+  public void shutDownPool() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void shouldReadTheEventsOfEveryChunkInTimestampOrder() throws IOException {
+    List<Event> events = new ArrayList<>(Topologies.events(17, 200, 3_000).stream().collect(Collectors.toList()));
+    Collections.shuffle(events, new Random(17));
+    Path file = write(events.stream().map(this::toLine).collect(Collectors.toList()));
+
+    List<Event> read = reader(file, 512).readEvents().stream().collect(Collectors.toList());
+
+    assertThat(read, is(equalTo(events.stream().sorted().collect(Collectors.toList()))));
+  }
+
+  @Test
+  public void shouldReadEventsKnownToBeInOrderSoTheyAreNotSortedAgain() throws IOException {
+    List<Event> events = new ArrayList<>(Topologies.events(17, 200, 3_000).stream().collect(Collectors.toList()));
+    Collections.shuffle(events, new Random(17));
+    Path file = write(events.stream().map(this::toLine).collect(Collectors.toList()));
+
+    ColumnarEventChain read = (ColumnarEventChain) reader(file, 512).readEvents();
+
+    assertThat(read.isOrdered(), is(true));
+    assertThat(read.sorted(), is(sameInstance(read)));
+  }
+
+  @Test
+  public void shouldSkipBlankLines() throws IOException {
+    Path file = write(Collections.singletonList(toLine(Any.event()) + "\n\n  \r"));
+
+    assertThat(reader(file, 0).readEvents().size(), is(1));
+  }
+
+  @Test(expected = IllegalEventConfigurationException.class)
+  public void shouldRejectTimestampsRepeatedInDifferentChunks() throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (int line = 0; line < 100; line++) {
+      lines.add("{\"timestamp\": \"" + (line % 99) + "\", \"component\": \"app\", \"state\": \"alert\"}");
+    }
+
+    reader(write(lines), 256).readEvents();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAMalformedLine() throws IOException {
+    reader(write(Collections.singletonList("{\"timestamp\": \"1\", ")), 0).readEvents();
+  }
+
+  private ParallelNdjsonFileReader reader(Path file, long chunkSize) {
+    return new ParallelNdjsonFileReader(Any.fileName(), file.toString(), codec, pool, chunkSize);
+  }
+
+  private Path write(List<String> lines) throws IOException {
+    Path file = folder.getRoot().toPath().resolve("events.ndjson");
+    Files.write(file, lines, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  private String toLine(Event event) {
+    try {
+      return objectMapper.writeValueAsString(EventDto.builder()
+          .timestamp(String.valueOf(event.getTimestamp()))
+          .component(event.getComponent())
+          .checkState(event.getCheckState())
+          .state(event.getState().toString().toLowerCase())
+          .build());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.writer.ConsoleWriter;
+import stackstate.io.writer.StreamingConsoleWriter;
+
+public class StreamingConsoleWriterSpecification {
+
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+      .configure(SerializationFeature.INDENT_OUTPUT, true));
+
+  @Test
+  public void shouldWriteTheSameOutputAsConsoleWriterForAnEmptyStackState() {
+    StackState stackState = StackState.withComponents();
+
+    assertThat(streamingWriterOutput(stackState), is(equalTo(consoleWriterOutput(stackState))));
+  }
+
+  @Test
+  public void shouldWriteTheSameOutputAsConsoleWriterForConnectedComponents() {
+    Component app = Component.withIdAndCheckedStates("app", "CPU load", "RAM usage");
+    Component queue = Component.withIdAndCheckedStates("queue", "CPU load");
+    Component db = Component.withId("db");
+    app.addDependencyOn(queue, db);
+    queue.addDependencyOn(db);
+    db.apply(Event.of(1, "db", "disk", StateValue.ALERT));
+    app.apply(Event.of(2, "app", "RAM usage", StateValue.CLEAR));
+
+    StackState stackState = StackState.withComponents(app, queue, db);
+
+    assertThat(streamingWriterOutput(stackState), is(equalTo(consoleWriterOutput(stackState))));
+  }
+
+  @Test
+  public void shouldWriteCheckStatesInTheSameOrderAsConsoleWriterWhenThereAreManyOfThem() {
+    Component app = Component.withIdAndCheckedStates("app", IntStream.range(0, 40)
+        .mapToObj(index -> "check-" + index)
+        .toArray(String[]::new));
+    app.apply(Event.of(1, "app", "check-7", StateValue.WARNING));
+
+    StackState stackState = StackState.withComponent(app);
+
+    assertThat(streamingWriterOutput(stackState), is(equalTo(consoleWriterOutput(stackState))));
+  }
+
+  @Test
+  public void shouldWriteCheckStatesByNameAndDependenciesById() {
+    Component app = Component.withIdAndCheckedStates("app", "RAM usage", "CPU load", "disk");
+    Component queue = Component.withId("queue");
+    Component db = Component.withId("db");
+    app.addDependencyOn(queue, db);
+
+    StackState stackState = StackState.withComponent(app);
+    DtoCodec compactCodec = ObjectMapperDtoCodec.of(new ObjectMapper()
+        .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE));
+
+    assertThat(streamingWriterOutput(stackState, compactCodec), is(equalTo("{\"graph\":{\"components\":[{"
+        + "\"id\":\"app\",\"own_state\":\"no_data\",\"derived_state\":\"no_data\","
+        + "\"check_states\":{\"CPU load\":\"no_data\",\"RAM usage\":\"no_data\",\"disk\":\"no_data\"},"
+        + "\"depends_on\":[\"db\",\"queue\"]}]}}" + System.lineSeparator())));
+    assertThat(consoleWriterOutput(stackState), is(equalTo(streamingWriterOutput(stackState))));
+  }
+
+  @Test
+  public void shouldLeaveOutTheIdOfAComponentWithoutOneAsConsoleWriterDoes() {
+    StackState stackState = StackState.withComponent(Component.withId(null));
+
+    assertThat(streamingWriterOutput(stackState), is(equalTo(consoleWriterOutput(stackState))));
+    assertThat(streamingWriterOutput(stackState).contains("\"id\""), is(false));
+  }
+
+  private String streamingWriterOutput(StackState stackState) {
+    return streamingWriterOutput(stackState, codec);
+  }
+
+  private String streamingWriterOutput(StackState stackState, DtoCodec codec) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new StreamingConsoleWriter(stackState, codec, out).write();
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+  private String consoleWriterOutput(StackState stackState) {
+    PrintStream console = System.out;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(out, true));
+    try {
+      new ConsoleWriter(stackState, codec).write();
+    } finally {
+      System.setOut(console);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+}
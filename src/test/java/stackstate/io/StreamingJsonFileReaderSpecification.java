@@ -0,0 +1,173 @@
+package stackstate.io;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import stackstate.io.codec.DtoCodec;
+import stackstate.io.codec.ObjectMapperDtoCodec;
+import stackstate.io.exception.IllegalEventConfigurationException;
+import stackstate.io.reader.StackStateReader;
+import stackstate.io.reader.StreamingJsonFileReader;
+import utils.Any;
+
+public class StreamingJsonFileReaderSpecification {
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+  private final DtoCodec codec = ObjectMapperDtoCodec.of(objectMapper);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenEventsJsonFileIsMalformed() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), getFileFullPath("events-malformed.json"),
+        codec);
+
+    try (Stream<Event> events = reader.streamEvents()) {
+      events.forEach(event -> {
+      });
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowExceptionWhenEventsJsonFileDoesNotExist() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), Any.fileName(), codec);
+
+    reader.streamEvents();
+  }
+
+  @Test(expected = IllegalEventConfigurationException.class)
+  public void shouldThrowExceptionWhenTwoEventsShareTheSameTimestamp() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(),
+        getFileFullPath("events-duplicated-timestamp.json"), codec);
+
+    reader.readEvents();
+  }
+
+  @Test(expected = IllegalEventConfigurationException.class)
+  public void shouldThrowExceptionWhenStateValueDoNotMatchAnyOfTheExpectedValues() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(),
+        getFileFullPath("events-invalid-state.json"), codec);
+
+    reader.readEvents();
+  }
+
+  @Test
+  public void shouldBuildEmptyEventChainWhenEventsJsonFileIsEmpty() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), getFileFullPath("events-empty.json"),
+        codec);
+
+    EventChain events = reader.readEvents();
+
+    assertThat(events.size(), is(equalTo(0)));
+  }
+
+  @Test
+  public void shouldStreamEventsInFileOrder() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), getFileFullPath("events-non-empty.json"),
+        codec);
+
+    try (Stream<Event> events = reader.streamEvents()) {
+      assertThat(events.collect(Collectors.toList()), contains(
+          Event.of(1, "db", "CPU load", StateValue.WARNING),
+          Event.of(2, "app", "CPU load", StateValue.CLEAR)));
+    }
+  }
+
+  @Test
+  public void shouldYieldEventsBeforeReadingTheRestOfTheFile() {
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), getFileFullPath("events-malformed-tail.json"),
+        codec);
+
+    try (Stream<Event> events = reader.streamEvents()) {
+      assertThat(events.findFirst().get(), is(equalTo(Event.of(1, "db", "CPU load", StateValue.WARNING))));
+    }
+  }
+
+  @Test
+  public void shouldCloseTheFileWhenItHoldsNoEventsObject() throws IOException {
+    File file = folder.newFile("events.json");
+    Files.write(file.toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+    RecordingJsonFactory factory = new RecordingJsonFactory();
+    StackStateReader reader = new StreamingJsonFileReader(Any.fileName(), file.getPath(), new DtoCodec() {
+      @Override
+      public JsonFactory getFactory() {
+        return factory;
+      }
+
+      @Override
+      public boolean isIndentOutput() {
+        return codec.isIndentOutput();
+      }
+
+      @Override
+      public <T> T readValue(JsonParser parser, Class<T> type) throws IOException {
+        return codec.readValue(parser, type);
+      }
+
+      @Override
+      public void writeValue(JsonGenerator generator, Object value) throws IOException {
+        codec.writeValue(generator, value);
+      }
+    });
+
+    try {
+      reader.streamEvents();
+      fail("The events file holds no events object");
+    } catch (IllegalArgumentException e) {
+      assertThat(factory.parsers.size(), is(1));
+      assertThat(factory.parsers.get(0).isClosed(), is(true));
+    }
+  }
+
+  private static String getFileFullPath(String file) {
+    try {
+      return Paths.get(StreamingJsonFileReaderSpecification.class
+          .getClassLoader()
+          .getResource(file)
+          .toURI())
+          .toString();
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class RecordingJsonFactory extends JsonFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<JsonParser> parsers = new ArrayList<>();
+
+    @Override
+    public JsonParser createParser(File file) throws IOException {
+      JsonParser parser = super.createParser(file);
+      parsers.add(parser);
+      return parser;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package stackstate.io.sort;
+
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+
+public class ExternalEventSorterSpecification {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldSortEventsThatFitInASingleRunWithoutSpilling() {
+    ExternalEventSorter sorter = new ExternalEventSorter(100, folder.getRoot().toPath());
+
+    List<Event> sorted = sort(sorter, shuffledEvents(50));
+
+    assertThat(sorted, is(equalTo(inMemorySort(shuffledEvents(50)))));
+    assertThat(folder.getRoot().list(), is(emptyArray()));
+  }
+
+  @Test
+  public void shouldKeepTheOriginalOrderOfEventsWithTheSameTimestampAcrossRuns() {
+    ExternalEventSorter sorter = new ExternalEventSorter(7, folder.getRoot().toPath());
+
+    List<Event> sorted = sort(sorter, shuffledEvents(1_000));
+
+    assertThat(sorted, is(equalTo(inMemorySort(shuffledEvents(1_000)))));
+  }
+
+  @Test
+  public void shouldMergeInSeveralPassesWhenThereAreMoreRunsThanCanBeOpenAtOnce() {
+    ExternalEventSorter sorter = new ExternalEventSorter(5, 3, folder.getRoot().toPath());
+
+    List<Event> sorted = sort(sorter, shuffledEvents(1_000));
+
+    assertThat(sorted, is(equalTo(inMemorySort(shuffledEvents(1_000)))));
+  }
+
+  @Test
+  public void shouldDeleteSpilledRunsWhenTheSortedStreamIsClosed() {
+    ExternalEventSorter sorter = new ExternalEventSorter(10, folder.getRoot().toPath());
+
+    try (Stream<Event> sorted = sorter.sort(shuffledEvents(100).stream())) {
+      sorted.findFirst();
+      assertThat(folder.getRoot().list(), is(not(emptyArray())));
+    }
+
+    assertThat(folder.getRoot().list(), is(emptyArray()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectRunsThatCannotHoldAnyEvent() {
+    new ExternalEventSorter(0, folder.getRoot().toPath());
+  }
+
+  private static List<Event> sort(ExternalEventSorter sorter, List<Event> events) {
+    try (Stream<Event> sorted = sorter.sort(events.stream())) {
+      return sorted.collect(Collectors.toList());
+    }
+  }
+
+  private static List<Event> inMemorySort(List<Event> events) {
+    return events.stream().sorted().collect(Collectors.toList());
+  }
+
+  private static List<Event> shuffledEvents(int count) {
+    Random random = new Random(count);
+    List<Event> events = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      events.add(Event.of(
+          random.nextInt(count / 4 + 1),
+          "component-" + index,
+          index % 5 == 0 ? null : "check-" + random.nextInt(3),
+          StateValue.values()[random.nextInt(StateValue.values().length)]));
+    }
+    return events;
+  }
+
+}
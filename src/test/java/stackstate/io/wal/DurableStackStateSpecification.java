@@ -0,0 +1,129 @@
+package stackstate.io.wal;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import utils.Topologies;
+
+public class DurableStackStateSpecification {
+
+  private static final Supplier<StackState> NO_INITIAL_STATE = () -> {
+    throw new AssertionError("The initial state should not be needed");
+  };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path directory;
+  private List<Event> events;
+  private StackState expected;
+
+  @Before
+  public void setUp() {
+    directory = folder.getRoot().toPath().resolve("durable");
+    EventChain eventChain = Topologies.events(7, 300, 2_000);
+    events = eventChain.stream().collect(Collectors.toList());
+    expected = new StateCalculator().processEvents(Topologies.withCycles(7, 300, 2), eventChain);
+  }
+
+  @Test
+  public void shouldRecoverFromTheLastCheckpointAndTheLogAfterIt() {
+    DurableStackState crashed = DurableStackState.open(directory, this::initialState, 10, 300);
+    events.forEach(crashed::apply);
+    crashed.commit();
+
+    DurableStackState recovered = DurableStackState.open(directory, NO_INITIAL_STATE);
+
+    Topologies.assertSameStates(recovered.getStackState(), expected);
+    assertThat(recovered.lastSequence(), is(equalTo((long) events.size())));
+  }
+
+  @Test
+  public void shouldCarryOnFromARecoveredState() {
+    DurableStackState crashed = DurableStackState.open(directory, this::initialState, 10, 300);
+    events.subList(0, 1_234).forEach(crashed::apply);
+    crashed.commit();
+
+    try (DurableStackState recovered = DurableStackState.open(directory, NO_INITIAL_STATE, 10, 300)) {
+      events.subList(1_234, events.size()).forEach(recovered::apply);
+    }
+
+    try (DurableStackState reopened = DurableStackState.open(directory, NO_INITIAL_STATE)) {
+      Topologies.assertSameStates(reopened.getStackState(), expected);
+    }
+  }
+
+  @Test
+  public void shouldLeaveNoLogToReplayAfterAClose() throws IOException {
+    try (DurableStackState durableState = DurableStackState.open(directory, this::initialState)) {
+      events.forEach(durableState::apply);
+    }
+
+    assertThat(WriteAheadLog.replay(directory, 0, event -> {
+      throw new AssertionError("Nothing should be replayed");
+    }), is(equalTo(0L)));
+  }
+
+  @Test
+  public void shouldWriteOnlyTheChangedComponentsBetweenFullCheckpoints() throws IOException {
+    try (DurableStackState durableState = DurableStackState.open(directory, this::initialState)) {
+      durableState.apply(Event.of(1, "component-1", "disk", StateValue.ALERT));
+    }
+
+    long fullSize = sizeOf(".full");
+    long deltaSize = sizeOf(".delta");
+    assertThat(deltaSize, is(lessThan(fullSize / 10)));
+    try (DurableStackState reopened = DurableStackState.open(directory, NO_INITIAL_STATE)) {
+      assertThat(reopened.getStackState().getComponent("component-1").get().getOwnState().value(),
+          is(StateValue.ALERT));
+    }
+  }
+
+  @Test
+  public void shouldIgnoreATornEventAtTheEndOfTheLog() throws IOException {
+    DurableStackState crashed = DurableStackState.open(directory, this::initialState, 10, 100_000);
+    events.forEach(crashed::apply);
+    crashed.commit();
+    Path lastSegment = files(".log").get(0);
+    Files.write(lastSegment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+    DurableStackState recovered = DurableStackState.open(directory, NO_INITIAL_STATE);
+
+    Topologies.assertSameStates(recovered.getStackState(), expected);
+  }
+
+  private StackState initialState() {
+    return Topologies.withCycles(7, 300, 2);
+  }
+
+  private long sizeOf(String suffix) throws IOException {
+    List<Path> files = files(suffix);
+    assertThat(files.size(), is(1));
+    return Files.size(files.get(0));
+  }
+
+  private List<Path> files(String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(suffix)).collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package stackstate.mvcc;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.junit.Test;
+import stackstate.StackState;
+import stackstate.StateCalculator;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+import utils.Topologies;
+
+public class VersionedStackStateSpecification {
+
+  @Test
+  public void shouldKeepEarlierVersionsAsTheyWere() {
+    Component app = Component.withIdAndCheckedStates("app", "CPU load");
+    Component db = Component.withIdAndCheckedStates("db", "CPU load");
+    app.addDependencyOn(db);
+    VersionedStackState versioned = VersionedStackState.of(StackState.withComponents(app, db));
+    StackStateVersion before = versioned.current();
+
+    StackStateVersion after = versioned.apply(Event.of(1, "db", "CPU load", StateValue.ALERT));
+
+    assertThat(before.getComponent("app").get().getDerivedState(), is(StateValue.NO_DATA));
+    assertThat(before.getComponent("db").get().getCheckStates().get("CPU load"), is(StateValue.NO_DATA));
+    assertThat(after.getComponent("app").get().getDerivedState(), is(StateValue.ALERT));
+    assertThat(after.getComponent("db").get().getOwnState(), is(StateValue.ALERT));
+    assertThat(after.version(), is(before.version() + 1));
+  }
+
+  @Test
+  public void shouldPublishTheSameStatesAsTheStackStateOncePerBatch() {
+    StackState stackState = Topologies.withCycles(4, 2_000, 2);
+    EventChain events = Topologies.events(4, 2_000, 5_000);
+    VersionedStackState versioned = VersionedStackState.of(stackState);
+
+    StackStateVersion version = versioned.applyAll(events.stream());
+
+    StackState expected = new StateCalculator().processEvents(Topologies.withCycles(4, 2_000, 2), events);
+    assertThat(version.version(), is(1L));
+    assertThat(version.size(), is(expected.size()));
+    expected.stream().forEach(component -> {
+      ComponentVersion published = version.getComponent(component.getId()).get();
+      assertThat(published.getOwnState(), is(component.getOwnState().value()));
+      assertThat(published.getDerivedState(), is(component.getDerivedState().value()));
+      assertThat(published.getCheckStates(), is(equalTo(component.getCheckedState().getValues())));
+    });
+  }
+
+  @Test
+  public void shouldShowComponentsAddedToTheStackStateInTheNextVersion() {
+    StackState stackState = StackState.withComponent(Component.withId("app"));
+    VersionedStackState versioned = VersionedStackState.of(stackState);
+
+    stackState.addComponent(Component.withIdAndCheckedStates("queue", "RAM usage"));
+    StackStateVersion version = versioned.apply(Event.of(1, "queue", "RAM usage", StateValue.WARNING));
+
+    assertThat(version.size(), is(2));
+    assertThat(version.getComponent("queue").get().getOwnState(), is(StateValue.WARNING));
+    assertThat(versioned.current().getComponent("app").isPresent(), is(true));
+  }
+
+  @Test
+  public void shouldGiveReadersAConsistentViewWhileEventsAreApplied() throws InterruptedException {
+    StackState stackState = StackState.withComponents(
+        Component.withIdAndCheckedStates("primary", "disk"),
+        Component.withIdAndCheckedStates("replica", "disk"));
+    VersionedStackState versioned = VersionedStackState.of(stackState);
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> inconsistency = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      while (!done.get()) {
+        StackStateVersion version = versioned.current();
+        StateValue primary = version.getComponent("primary").get().getOwnState();
+        StateValue replica = version.getComponent("replica").get().getOwnState();
+        if (primary != replica) {
+          inconsistency.set("version " + version.version() + ": " + primary + " and " + replica);
+        }
+      }
+    });
+    reader.start();
+
+    StateValue[] states = {StateValue.CLEAR, StateValue.WARNING, StateValue.ALERT};
+    for (int batch = 1; batch <= 20_000; batch++) {
+      StateValue state = states[batch % states.length];
+      versioned.applyAll(Stream.of(
+          Event.of(2 * batch, "primary", "disk", state),
+          Event.of(2 * batch + 1, "replica", "disk", state)));
+    }
+    done.set(true);
+    reader.join();
+
+    assertThat(inconsistency.get(), is((String) null));
+    assertThat(versioned.current().version(), is(20_000L));
+  }
+}
@@ -0,0 +1,75 @@
+package utils;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import stackstate.StackState;
+import stackstate.domain.Component;
+import stackstate.domain.enumeration.StateValue;
+import stackstate.domain.event.Event;
+import stackstate.domain.event.EventChain;
+
+/**
+ * Seeded random topologies, so that two engines can be fed identical graphs and event chains.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Topologies {
+
+  private static final String[] CHECKS = {"CPU load", "RAM usage", "disk"};
+  private static final StateValue[] STATES = {StateValue.CLEAR, StateValue.WARNING, StateValue.ALERT};
+
+  public static StackState acyclic(long seed, int componentCount, int maxDependencies) {
+    return random(seed, componentCount, maxDependencies, false);
+  }
+
+  public static StackState withCycles(long seed, int componentCount, int maxDependencies) {
+    return random(seed, componentCount, maxDependencies, true);
+  }
+
+  public static EventChain events(long seed, int componentCount, int eventCount) {
+    Random random = new Random(seed);
+    List<Event> events = new ArrayList<>(eventCount);
+    for (int timestamp = 1; timestamp <= eventCount; timestamp++) {
+      events.add(Event.of(
+          timestamp,
+          componentId(random.nextInt(componentCount)),
+          CHECKS[random.nextInt(CHECKS.length)],
+          STATES[random.nextInt(STATES.length)]));
+    }
+    return EventChain.withEvents(events);
+  }
+
+  public static void assertSameStates(StackState actual, StackState expected) {
+    assertThat(actual.size(), is(equalTo(expected.size())));
+    expected.stream().forEach(component ->
+        assertThat(component.getId(), actual.getComponent(component.getId()).get(), is(equalTo(component))));
+  }
+
+  private static StackState random(long seed, int componentCount, int maxDependencies, boolean allowCycles) {
+    Random random = new Random(seed);
+    List<Component> components = new ArrayList<>(componentCount);
+    for (int index = 0; index < componentCount; index++) {
+      components.add(Component.withIdAndCheckedStates(componentId(index), CHECKS));
+    }
+    for (int index = 1; index < componentCount; index++) {
+      int dependencies = random.nextInt(maxDependencies + 1);
+      for (int dependency = 0; dependency < dependencies; dependency++) {
+        int bound = allowCycles ? componentCount : index;
+        components.get(index).addDependencyOn(components.get(random.nextInt(bound)));
+      }
+    }
+    Collections.shuffle(components, random);
+    return StackState.withComponents(components);
+  }
+
+  private static String componentId(int index) {
+    return "component-" + index;
+  }
+}